@@ -6,9 +6,12 @@ import java.util.function.Function;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.inject.Instance;
 
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
 import org.jboss.jandex.*;
 
 import com.solace.messaging.MessagingService;
+import com.solace.messaging.receiver.InboundMessage;
 import com.solacesystems.jcsmp.JCSMPFactory;
 
 import io.quarkiverse.solace.MessagingServiceClientCustomizer;
@@ -21,10 +24,13 @@ import io.quarkus.arc.deployment.SyntheticBeansRuntimeInitBuildItem;
 import io.quarkus.arc.deployment.UnremovableBeanBuildItem;
 import io.quarkus.deployment.annotations.*;
 import io.quarkus.deployment.annotations.Record;
+import io.quarkus.deployment.builditem.CombinedIndexBuildItem;
 import io.quarkus.deployment.builditem.ExtensionSslNativeSupportBuildItem;
 import io.quarkus.deployment.builditem.FeatureBuildItem;
+import io.quarkus.deployment.builditem.RunTimeConfigurationDefaultBuildItem;
 import io.quarkus.deployment.builditem.ServiceStartBuildItem;
 import io.quarkus.deployment.builditem.ShutdownContextBuildItem;
+import io.quarkus.deployment.builditem.nativeimage.ReflectiveClassBuildItem;
 import io.quarkus.deployment.builditem.nativeimage.RuntimeInitializedClassBuildItem;
 import io.quarkus.deployment.metrics.MetricsCapabilityBuildItem;
 import io.quarkus.runtime.metrics.MetricsFactory;
@@ -40,6 +46,16 @@ class SolaceProcessor {
 
     private static final AnnotationInstance[] EMPTY_ANNOTATIONS = new AnnotationInstance[0];
 
+    private static final String CONNECTOR_NAME = "quarkus-solace";
+
+    private static final DotName INCOMING = DotName.createSimple("org.eclipse.microprofile.reactive.messaging.Incoming");
+
+    private static final String CONNECTOR_PACKAGE = "io.quarkiverse.solace";
+
+    private static final DotName MESSAGE = DotName.createSimple("org.eclipse.microprofile.reactive.messaging.Message");
+
+    private static final DotName INBOUND_MESSAGE = DotName.createSimple(InboundMessage.class.getName());
+
     @BuildStep
     FeatureBuildItem feature() {
         return new FeatureBuildItem(FEATURE);
@@ -90,6 +106,71 @@ class SolaceProcessor {
         }
     }
 
+    /**
+     * Sets the default {@code payload.type} of Solace incoming channels to the payload type of their {@code @Incoming} method,
+     * so payloads are decoded directly into it. Channels consuming the Solace {@link InboundMessage} get it as
+     * payload type, for their payloads not to be decoded at all.
+     * <p>
+     * The connector of a channel is read from the configuration visible at build time, such as {@code application.properties}.
+     * A channel only bound to the connector at runtime, for instance through an environment variable, gets no default and
+     * its payloads are decoded into the default type and converted afterwards.
+     */
+    @BuildStep
+    void detectPayloadTypes(CombinedIndexBuildItem combinedIndex,
+            BuildProducer<RunTimeConfigurationDefaultBuildItem> defaults,
+            BuildProducer<ReflectiveClassBuildItem> reflectiveClasses) {
+        Config config = ConfigProvider.getConfig();
+        for (AnnotationInstance incoming : combinedIndex.getIndex().getAnnotations(INCOMING)) {
+            if (incoming.target().kind() != AnnotationTarget.Kind.METHOD) {
+                continue;
+            }
+            String channel = incoming.value().asString();
+            String connector = config.getOptionalValue("mp.messaging.incoming." + channel + ".connector", String.class)
+                    .orElse(null);
+            MethodInfo method = incoming.target().asMethod();
+            if (!CONNECTOR_NAME.equals(connector) || method.parametersCount() != 1) {
+                continue;
+            }
+            Type payloadType = getPayloadType(method.parameterType(0));
+            if (consumesInboundMessage(method.parameterType(0))) {
+                defaults.produce(new RunTimeConfigurationDefaultBuildItem(
+                        "mp.messaging.incoming." + channel + ".payload.type", InboundMessage.class.getName()));
+            } else if (payloadType != null) {
+                String className = payloadType.name().toString();
+                defaults.produce(new RunTimeConfigurationDefaultBuildItem(
+                        "mp.messaging.incoming." + channel + ".payload.type", className));
+                reflectiveClasses.produce(ReflectiveClassBuildItem.builder(className).methods().fields().build());
+            }
+        }
+    }
+
+    static Type getPayloadType(Type parameterType) {
+        Type type = parameterType;
+        if (type.kind() == Type.Kind.PARAMETERIZED_TYPE && type.name().equals(MESSAGE)) {
+            type = type.asParameterizedType().arguments().get(0);
+        }
+        if (type.kind() != Type.Kind.CLASS) {
+            return null;
+        }
+        // Only application types, the connector already handles JDK, Vert.x and Solace types, and the message and
+        // metadata types of the connector and of Reactive Messaging are not payloads
+        String name = type.name().toString();
+        if (name.startsWith("java.") || name.startsWith("io.vertx.") || name.startsWith("com.solace.")
+                || name.startsWith("org.eclipse.microprofile.") || name.startsWith("io.smallrye.")
+                || CONNECTOR_PACKAGE.equals(type.name().packagePrefix())) {
+            return null;
+        }
+        return type;
+    }
+
+    static boolean consumesInboundMessage(Type parameterType) {
+        Type type = parameterType;
+        if (type.kind() == Type.Kind.PARAMETERIZED_TYPE && type.name().equals(MESSAGE)) {
+            type = type.asParameterizedType().arguments().get(0);
+        }
+        return type.kind() == Type.Kind.CLASS && type.name().equals(INBOUND_MESSAGE);
+    }
+
     @BuildStep
     void configureNativeCompilation(BuildProducer<RuntimeInitializedClassBuildItem> producer) {
         producer.produce(new RuntimeInitializedClassBuildItem(JCSMPFactory.class.getName()));
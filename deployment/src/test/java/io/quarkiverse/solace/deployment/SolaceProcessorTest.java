@@ -0,0 +1,67 @@
+package io.quarkiverse.solace.deployment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.jboss.jandex.ClassType;
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.ParameterizedType;
+import org.jboss.jandex.Type;
+import org.jboss.jandex.WildcardType;
+import org.junit.jupiter.api.Test;
+
+public class SolaceProcessorTest {
+
+    private static final DotName MESSAGE = DotName.createSimple("org.eclipse.microprofile.reactive.messaging.Message");
+    private static final DotName PRICE = DotName.createSimple("org.acme.Price");
+
+    @Test
+    public void applicationPayloadType() {
+        assertThat(SolaceProcessor.getPayloadType(ClassType.create(PRICE)).name()).isEqualTo(PRICE);
+        assertThat(SolaceProcessor.getPayloadType(message(ClassType.create(PRICE))).name()).isEqualTo(PRICE);
+    }
+
+    @Test
+    public void messageTypes() {
+        // Raw message
+        assertThat(SolaceProcessor.getPayloadType(ClassType.create(MESSAGE))).isNull();
+        assertThat(SolaceProcessor.getPayloadType(message(WildcardType.create(ClassType.OBJECT_TYPE, true)))).isNull();
+        // Connector messages and metadata
+        assertThat(SolaceProcessor.getPayloadType(type("io.quarkiverse.solace.SolaceInboundMessage"))).isNull();
+        assertThat(SolaceProcessor.getPayloadType(message(type("io.quarkiverse.solace.SolaceInboundMessage")))).isNull();
+        assertThat(SolaceProcessor.getPayloadType(type("io.quarkiverse.solace.SolaceInboundMetadata"))).isNull();
+        assertThat(SolaceProcessor.getPayloadType(ParameterizedType.create(
+                DotName.createSimple("io.quarkiverse.solace.SolaceInboundMessage"),
+                new Type[] { ClassType.create(PRICE) }, null))).isNull();
+        // Solace messages
+        assertThat(SolaceProcessor.getPayloadType(type("com.solace.messaging.receiver.InboundMessage"))).isNull();
+        assertThat(SolaceProcessor.getPayloadType(message(type("com.solace.messaging.receiver.InboundMessage"))))
+                .isNull();
+        // Reactive Messaging types
+        assertThat(SolaceProcessor.getPayloadType(type("org.eclipse.microprofile.reactive.messaging.Metadata")))
+                .isNull();
+        assertThat(SolaceProcessor.getPayloadType(type("io.smallrye.reactive.messaging.TracingMetadata"))).isNull();
+    }
+
+    @Test
+    public void jdkTypes() {
+        assertThat(SolaceProcessor.getPayloadType(type("java.lang.String"))).isNull();
+        assertThat(SolaceProcessor.getPayloadType(type("io.vertx.core.buffer.Buffer"))).isNull();
+    }
+
+    @Test
+    public void inboundMessage() {
+        assertThat(SolaceProcessor.consumesInboundMessage(type("com.solace.messaging.receiver.InboundMessage"))).isTrue();
+        assertThat(SolaceProcessor.consumesInboundMessage(message(type("com.solace.messaging.receiver.InboundMessage"))))
+                .isTrue();
+        assertThat(SolaceProcessor.consumesInboundMessage(ClassType.create(PRICE))).isFalse();
+        assertThat(SolaceProcessor.consumesInboundMessage(ClassType.create(MESSAGE))).isFalse();
+    }
+
+    private static Type type(String name) {
+        return ClassType.create(DotName.createSimple(name));
+    }
+
+    private static Type message(Type argument) {
+        return ParameterizedType.create(MESSAGE, new Type[] { argument }, null);
+    }
+}
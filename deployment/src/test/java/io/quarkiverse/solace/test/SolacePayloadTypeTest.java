@@ -0,0 +1,97 @@
+package io.quarkiverse.solace.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CompletionStage;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.solace.messaging.receiver.InboundMessage;
+
+import io.quarkus.test.QuarkusUnitTest;
+
+public class SolacePayloadTypeTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest unitTest = new QuarkusUnitTest()
+            .setArchiveProducer(() -> ShrinkWrap.create(JavaArchive.class)
+                    .addClasses(Price.class, PriceConsumer.class))
+            .overrideConfigKey("quarkus.solace.devservices.enabled", "false")
+            .overrideConfigKey("mp.messaging.incoming.prices.connector", "quarkus-solace")
+            .overrideConfigKey("mp.messaging.incoming.price-messages.connector", "quarkus-solace")
+            .overrideConfigKey("mp.messaging.incoming.strings.connector", "quarkus-solace")
+            .overrideConfigKey("mp.messaging.incoming.raw-messages.connector", "quarkus-solace")
+            .overrideConfigKey("mp.messaging.incoming.inbound-messages.connector", "quarkus-solace")
+            .overrideConfigKey("mp.messaging.incoming.inbound-payloads.connector", "quarkus-solace")
+            .overrideConfigKey("mp.messaging.incoming.other.connector", "smallrye-in-memory");
+
+    @Test
+    public void payloadType() {
+        assertThat(payloadType("prices")).isEqualTo(Price.class.getName());
+        assertThat(payloadType("price-messages")).isEqualTo(Price.class.getName());
+        // JDK types are handled by the connector
+        assertThat(payloadType("strings")).isNull();
+        // Message types are not payloads
+        assertThat(payloadType("raw-messages")).isNull();
+        // Solace messages are passed as is, without decoding their payload
+        assertThat(payloadType("inbound-messages")).isEqualTo(InboundMessage.class.getName());
+        assertThat(payloadType("inbound-payloads")).isEqualTo(InboundMessage.class.getName());
+        // Not a Solace channel
+        assertThat(payloadType("other")).isNull();
+    }
+
+    private static String payloadType(String channel) {
+        return ConfigProvider.getConfig()
+                .getOptionalValue("mp.messaging.incoming." + channel + ".payload.type", String.class)
+                .orElse(null);
+    }
+
+    public static class Price {
+        public String symbol;
+        public double value;
+    }
+
+    @ApplicationScoped
+    public static class PriceConsumer {
+
+        @Incoming("prices")
+        void prices(Price price) {
+        }
+
+        @Incoming("price-messages")
+        CompletionStage<Void> priceMessages(Message<Price> price) {
+            return price.ack();
+        }
+
+        @Incoming("strings")
+        void strings(String payload) {
+        }
+
+        @SuppressWarnings("rawtypes")
+        @Incoming("raw-messages")
+        CompletionStage<Void> rawMessages(Message message) {
+            return message.ack();
+        }
+
+        @Incoming("inbound-messages")
+        void inboundMessages(InboundMessage message) {
+        }
+
+        @Incoming("inbound-payloads")
+        CompletionStage<Void> inboundPayloads(Message<InboundMessage> message) {
+            return message.ack();
+        }
+
+        @Incoming("other")
+        void other(Price price) {
+        }
+    }
+}
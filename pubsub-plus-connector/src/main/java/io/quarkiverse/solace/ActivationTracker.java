@@ -0,0 +1,74 @@
+package io.quarkiverse.solace;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.solace.messaging.config.ReceiverActivationPassivationConfiguration.ReceiverStateChangeListener.ReceiverState;
+
+import io.quarkiverse.solace.i18n.SolaceLogging;
+
+/**
+ * Tracks the active or passive state of the receivers of a channel consuming an exclusive queue.
+ * <p>
+ * The time to first message measures how long a channel becoming active waits for its first message, from the state
+ * change notified by the broker. It includes the time the queue stays empty, the receiver not being notified when
+ * the broker starts the flow, it is only the takeover time if messages are waiting on the queue at the activation.
+ */
+public class ActivationTracker {
+
+    private final String channel;
+    private final AtomicLong activations = new AtomicLong();
+    private final AtomicLong passivations = new AtomicLong();
+    // Receivers of non-exclusive queues are never notified, and always active
+    private volatile ReceiverState state = ReceiverState.ACTIVE;
+    private volatile long activatedAt;
+    private volatile long lastTimeToFirstMessage = -1;
+
+    public ActivationTracker(String channel) {
+        this.channel = channel;
+    }
+
+    public void onStateChange(ReceiverState newState) {
+        if (newState == ReceiverState.ACTIVE) {
+            activatedAt = System.nanoTime();
+            activations.incrementAndGet();
+        } else {
+            activatedAt = 0;
+            passivations.incrementAndGet();
+        }
+        state = newState;
+        SolaceLogging.log.receiverStateChanged(channel, newState.toString().toLowerCase());
+    }
+
+    /**
+     * Called for each message dispatched, completes the time to first message on the first one after activation.
+     */
+    public void onMessage() {
+        long at = activatedAt;
+        if (at != 0) {
+            activatedAt = 0;
+            lastTimeToFirstMessage = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - at);
+            SolaceLogging.log.firstMessageAfterActivation(channel, lastTimeToFirstMessage);
+        }
+    }
+
+    public boolean isActive() {
+        return state == ReceiverState.ACTIVE;
+    }
+
+    public long getActivations() {
+        return activations.get();
+    }
+
+    public long getPassivations() {
+        return passivations.get();
+    }
+
+    /**
+     * @return the time in milliseconds between the last activation and the first message dispatched, including the time
+     *         the queue stayed empty, {@code -1} if none
+     */
+    public long getLastTimeToFirstMessage() {
+        return lastTimeToFirstMessage;
+    }
+}
@@ -0,0 +1,194 @@
+package io.quarkiverse.solace;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+import com.solace.messaging.MessagingService;
+import com.solace.messaging.publisher.PublisherHealthCheck;
+import com.solace.messaging.util.LifecycleControl;
+
+import io.smallrye.reactive.messaging.health.HealthReport;
+
+/**
+ * The health of a channel, cached from the lifecycle events of its receivers or publisher and of the messaging
+ * service, so that health checks never wait for the broker.
+ * <ul>
+ * <li>started once the receivers or the publisher are started</li>
+ * <li>ready while started and connected, unless the publisher is back-pressured, or the channel has messages in
+ * flight and has not settled any of them, or received any publish receipt, for longer than the stall threshold</li>
+ * <li>alive unless the service is interrupted, the receivers or publisher terminated unexpectedly, or the channel
+ * failed</li>
+ * </ul>
+ * The channels joining a shared receiver are reported with the health of the receiver.
+ */
+public class ChannelHealth implements MessagingService.ReconnectionListener,
+        MessagingService.ReconnectionAttemptListener, MessagingService.ServiceInterruptionListener,
+        LifecycleControl.TerminationNotificationListener, PublisherHealthCheck.PublisherReadinessListener {
+
+    public enum State {
+        CREATED,
+        STARTED,
+        RECONNECTING,
+        CLOSED,
+        FAILED
+    }
+
+    // The channel and the channels joining its shared receiver
+    private final List<String> channels = new CopyOnWriteArrayList<>();
+    private final MessagingService solace;
+    private final boolean enabled;
+    private final AtomicReference<State> state = new AtomicReference<>(State.CREATED);
+    private volatile String failure;
+    private volatile boolean backPressured;
+
+    // Stall detection
+    private final long stallThreshold;
+    private final LongSupplier unsettled;
+    private final LongSupplier settled;
+    private long lastSettled = -1;
+    private long lastProgress;
+
+    /**
+     * @param stallThreshold the time in milliseconds without settlement after which a consumer is stalled, 0 to
+     *        disable stall detection
+     * @param unsettled the messages in flight, not settled or without publish receipt
+     * @param settled the messages settled or with a publish receipt so far
+     */
+    public ChannelHealth(String channel, MessagingService solace, boolean enabled, long stallThreshold,
+            LongSupplier unsettled, LongSupplier settled) {
+        this.solace = solace;
+        this.enabled = enabled;
+        this.stallThreshold = stallThreshold;
+        this.unsettled = unsettled;
+        this.settled = settled;
+        this.channels.add(channel);
+        if (enabled) {
+            solace.addReconnectionListener(this);
+            solace.addReconnectionAttemptListener(this);
+            solace.addServiceInterruptionListener(this);
+        }
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    void started() {
+        state.compareAndSet(State.CREATED, State.STARTED);
+    }
+
+    void failed(Throwable cause) {
+        failed(String.valueOf(cause));
+    }
+
+    private void failed(String reason) {
+        State current = state.get();
+        if (current != State.CLOSED && state.compareAndSet(current, State.FAILED)) {
+            this.failure = reason;
+        }
+    }
+
+    /**
+     * Reports a channel joining the shared receiver of this channel.
+     */
+    void join(String joining) {
+        channels.add(joining);
+    }
+
+    void backPressured() {
+        backPressured = true;
+    }
+
+    void closed() {
+        state.set(State.CLOSED);
+        if (enabled) {
+            solace.removeReconnectionListener(this);
+            solace.removeReconnectionAttemptListener(this);
+            solace.removeServiceInterruptionListener(this);
+        }
+    }
+
+    @Override
+    public void onReconnecting(MessagingService.ServiceEvent event) {
+        state.compareAndSet(State.STARTED, State.RECONNECTING);
+    }
+
+    @Override
+    public void onReconnected(MessagingService.ServiceEvent event) {
+        state.compareAndSet(State.RECONNECTING, State.STARTED);
+    }
+
+    @Override
+    public void onServiceInterrupted(MessagingService.ServiceEvent event) {
+        failed(event.getMessage());
+    }
+
+    @Override
+    public void onTermination(LifecycleControl.TerminationEvent event) {
+        failed(event.getMessage());
+    }
+
+    @Override
+    public void ready() {
+        backPressured = false;
+    }
+
+    private synchronized boolean isStalled() {
+        if (stallThreshold <= 0) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        long current = settled.getAsLong();
+        if (current != lastSettled || unsettled.getAsLong() == 0) {
+            lastSettled = current;
+            lastProgress = now;
+            return false;
+        }
+        return now - lastProgress > stallThreshold;
+    }
+
+    public void isStarted(HealthReport.HealthReportBuilder builder) {
+        if (enabled) {
+            boolean started = state.get() != State.CREATED;
+            channels.forEach(name -> builder.add(name, started));
+        }
+    }
+
+    public void isReady(HealthReport.HealthReportBuilder builder) {
+        if (!enabled) {
+            return;
+        }
+        State current = state.get();
+        String reason = null;
+        if (current != State.STARTED) {
+            reason = current.toString().toLowerCase();
+        } else if (backPressured) {
+            reason = "back-pressured";
+        } else if (isStalled()) {
+            reason = "stalled";
+        }
+        for (String name : channels) {
+            if (reason == null) {
+                builder.add(name, true);
+            } else {
+                builder.add(name, false, reason);
+            }
+        }
+    }
+
+    public void isAlive(HealthReport.HealthReportBuilder builder) {
+        if (!enabled) {
+            return;
+        }
+        boolean failed = state.get() == State.FAILED;
+        for (String name : channels) {
+            if (failed) {
+                builder.add(name, false, failure);
+            } else {
+                builder.add(name, true);
+            }
+        }
+    }
+}
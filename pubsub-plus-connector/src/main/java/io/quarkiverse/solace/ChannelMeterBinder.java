@@ -0,0 +1,137 @@
+package io.quarkiverse.solace;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.ToDoubleFunction;
+
+import jakarta.enterprise.inject.Instance;
+import jakarta.enterprise.inject.spi.CDI;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * Exposes the {@link ChannelMetrics} as Micrometer meters tagged by channel.
+ * Only loaded when Micrometer is available.
+ */
+class ChannelMeterBinder {
+
+    private static final double[] PERCENTILES = { 0.5, 0.99 };
+
+    private final MeterRegistry registry;
+    private final List<Meter> meters = new ArrayList<>();
+
+    private ChannelMeterBinder(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    static ChannelMeterBinder create() {
+        MeterRegistry registry = Metrics.globalRegistry;
+        try {
+            Instance<MeterRegistry> instance = CDI.current().select(MeterRegistry.class);
+            if (instance.isResolvable()) {
+                registry = instance.get();
+            }
+        } catch (IllegalStateException e) {
+            // No CDI container, use the global registry
+        }
+        return new ChannelMeterBinder(registry);
+    }
+
+    synchronized void bind(ChannelMetrics metrics) {
+        Tags tags = Tags.of("channel", metrics.getChannel());
+        if (metrics.isIncoming()) {
+            counter("solace.channel.received", "The messages received", tags, metrics, ChannelMetrics::getReceived);
+            counter("solace.channel.acked", "The messages acked", tags, metrics, ChannelMetrics::getAcked);
+            counter("solace.channel.nacked", "The messages nacked", tags, metrics, ChannelMetrics::getNacked);
+            if (metrics.getFiltered() != null) {
+                LongSupplier filtered = metrics.getFiltered();
+                counter("solace.channel.filtered", "The messages filtered out", tags, metrics,
+                        m -> filtered.getAsLong());
+            }
+            ActivationTracker activation = metrics.getActivation();
+            if (activation != null) {
+                meters.add(Gauge.builder("solace.channel.active", activation, a -> a.isActive() ? 1 : 0)
+                        .description("Whether the receivers are active on the queue")
+                        .tags(tags)
+                        .register(registry));
+                counter("solace.channel.activations", "The times the receivers became active", tags, activation,
+                        ActivationTracker::getActivations);
+                counter("solace.channel.passivations", "The times the receivers became passive", tags, activation,
+                        ActivationTracker::getPassivations);
+                meters.add(Gauge.builder("solace.channel.activation.first.message", activation,
+                        ChannelMeterBinder::timeToFirstMessage)
+                        .description("The time from the last activation to the first message dispatched, "
+                                + "including the time the queue stayed empty")
+                        .baseUnit("seconds")
+                        .tags(tags)
+                        .register(registry));
+            }
+            timer("solace.channel.processing", "The time from dispatch to settlement", tags, metrics.getProcessing());
+            timer("solace.channel.ack.latency", "The time to ack the broker", tags, metrics.getAckLatency());
+            EndToEndLatency endToEnd = metrics.getEndToEnd();
+            if (endToEnd != null) {
+                // Tagged by topic pattern, the patterns being bounded by configuration
+                endToEnd.getBrokerToConsumer().forEach((pattern, latency) -> timer(
+                        "solace.channel.broker.to.consumer.latency", "The time from the receive timestamp to the ack",
+                        tags.and("topic", pattern), latency));
+                endToEnd.getSenderToAck().forEach((pattern, latency) -> timer(
+                        "solace.channel.sender.to.ack.latency", "The time from the sender timestamp to the ack",
+                        tags.and("topic", pattern), latency));
+            }
+        } else {
+            counter("solace.channel.sent", "The messages sent", tags, metrics, ChannelMetrics::getSent);
+            counter("solace.channel.receipts", "The messages published", tags, metrics, ChannelMetrics::getReceipts);
+            counter("solace.channel.failures", "The messages failed to publish", tags, metrics,
+                    ChannelMetrics::getFailures);
+            timer("solace.channel.publish.latency", "The time from publish to receipt", tags,
+                    metrics.getPublishLatency());
+        }
+        if (metrics.getInflight() != null) {
+            LongSupplier inflight = metrics.getInflight();
+            meters.add(Gauge.builder("solace.channel.inflight", inflight, LongSupplier::getAsLong)
+                    .description("The messages in flight")
+                    .tags(tags)
+                    .register(registry));
+        }
+    }
+
+    private static double timeToFirstMessage(ActivationTracker activation) {
+        long time = activation.getLastTimeToFirstMessage();
+        return time < 0 ? Double.NaN : time / 1e3;
+    }
+
+    private <T> void counter(String name, String description, Tags tags, T obj, ToDoubleFunction<T> count) {
+        meters.add(FunctionCounter.builder(name, obj, count)
+                .description(description)
+                .tags(tags)
+                .register(registry));
+    }
+
+    private void timer(String name, String description, Tags tags, LatencyTimer timer) {
+        meters.add(FunctionTimer.builder(name, timer, LatencyTimer::getCount, LatencyTimer::getTotalNanos,
+                TimeUnit.NANOSECONDS)
+                .description(description)
+                .tags(tags)
+                .register(registry));
+        for (double percentile : PERCENTILES) {
+            meters.add(Gauge.builder(name + ".percentile", timer, t -> t.getPercentileNanos(percentile) / 1e9)
+                    .description(description + ", percentile since start")
+                    .baseUnit("seconds")
+                    .tags(tags.and("phi", String.valueOf(percentile)))
+                    .register(registry));
+        }
+    }
+
+    synchronized void close() {
+        meters.forEach(registry::remove);
+        meters.clear();
+    }
+}
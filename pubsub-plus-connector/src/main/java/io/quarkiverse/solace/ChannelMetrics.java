@@ -0,0 +1,157 @@
+package io.quarkiverse.solace;
+
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import com.solace.messaging.receiver.InboundMessage;
+
+/**
+ * The metrics of a channel, recorded with striped counters to keep the message path cheap.
+ * They are exposed as Micrometer meters tagged by channel when Micrometer is available.
+ * <p>
+ * Incoming channels count the received, acked and nacked messages, the processing time from dispatch to settlement
+ * and the ack latency until the broker is acked. Outgoing channels count the sent messages, their publish receipts
+ * and failures, and the latency from publish to receipt.
+ */
+public class ChannelMetrics {
+
+    private final String channel;
+    private final boolean incoming;
+    private final LongSupplier inflight;
+    private final LongSupplier filtered;
+    private final EndToEndLatency endToEnd;
+    private final ActivationTracker activation;
+
+    private final LongAdder received = new LongAdder();
+    private final LongAdder acked = new LongAdder();
+    private final LongAdder nacked = new LongAdder();
+    private final LatencyTimer processing = new LatencyTimer();
+    private final LatencyTimer ackLatency = new LatencyTimer();
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder receipts = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LatencyTimer publishLatency = new LatencyTimer();
+
+    private ChannelMetrics(String channel, boolean incoming, LongSupplier inflight, LongSupplier filtered,
+            EndToEndLatency endToEnd, ActivationTracker activation) {
+        this.channel = channel;
+        this.incoming = incoming;
+        this.inflight = inflight;
+        this.filtered = filtered;
+        this.endToEnd = endToEnd;
+        this.activation = activation;
+    }
+
+    /**
+     * @param inflight the number of unsettled messages, {@code null} if not tracked by the channel
+     * @param filtered the number of filtered messages, {@code null} if the channel does not filter
+     * @param endToEnd the end-to-end latency of the acked messages, {@code null} if not recorded
+     * @param activation the activation of the receivers, {@code null} if not owned by the channel
+     */
+    public static ChannelMetrics incoming(String channel, LongSupplier inflight, LongSupplier filtered,
+            EndToEndLatency endToEnd, ActivationTracker activation) {
+        return new ChannelMetrics(channel, true, inflight, filtered, endToEnd, activation);
+    }
+
+    public static ChannelMetrics outgoing(String channel, LongSupplier inflight) {
+        return new ChannelMetrics(channel, false, inflight, null, null, null);
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    public boolean isIncoming() {
+        return incoming;
+    }
+
+    void received() {
+        received.increment();
+    }
+
+    /**
+     * @param dispatchedAt the {@link System#nanoTime()} at which the message has been dispatched
+     * @return the given ack stage, recording the ack latency on completion
+     */
+    CompletionStage<Void> acked(InboundMessage msg, long dispatchedAt, CompletionStage<Void> ack) {
+        long now = System.nanoTime();
+        acked.increment();
+        processing.record(now - dispatchedAt);
+        if (endToEnd != null) {
+            endToEnd.record(msg);
+        }
+        return ack.whenComplete((x, t) -> ackLatency.record(System.nanoTime() - now));
+    }
+
+    void nacked(long dispatchedAt) {
+        nacked.increment();
+        processing.record(System.nanoTime() - dispatchedAt);
+    }
+
+    void sent() {
+        sent.increment();
+    }
+
+    void published(long sentAt, Throwable failure) {
+        if (failure != null) {
+            failures.increment();
+        } else {
+            receipts.increment();
+            publishLatency.record(System.nanoTime() - sentAt);
+        }
+    }
+
+    public EndToEndLatency getEndToEnd() {
+        return endToEnd;
+    }
+
+    public ActivationTracker getActivation() {
+        return activation;
+    }
+
+    public LongSupplier getInflight() {
+        return inflight;
+    }
+
+    public LongSupplier getFiltered() {
+        return filtered;
+    }
+
+    public long getReceived() {
+        return received.sum();
+    }
+
+    public long getAcked() {
+        return acked.sum();
+    }
+
+    public long getNacked() {
+        return nacked.sum();
+    }
+
+    public LatencyTimer getProcessing() {
+        return processing;
+    }
+
+    public LatencyTimer getAckLatency() {
+        return ackLatency;
+    }
+
+    public long getSent() {
+        return sent.sum();
+    }
+
+    public long getReceipts() {
+        return receipts.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    public LatencyTimer getPublishLatency() {
+        return publishLatency;
+    }
+}
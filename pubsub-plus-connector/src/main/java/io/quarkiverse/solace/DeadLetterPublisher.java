@@ -0,0 +1,90 @@
+package io.quarkiverse.solace;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import com.solace.messaging.MessagingService;
+import com.solace.messaging.PubSubPlusClientException;
+import com.solace.messaging.publisher.OutboundMessageBuilder;
+import com.solace.messaging.publisher.PersistentMessagePublisher;
+import com.solace.messaging.receiver.InboundMessage;
+import com.solace.messaging.resources.Topic;
+
+/**
+ * Publishes the inbound messages that failed to a dead-letter topic, with their payload and properties.
+ * The failure is described by the {@code dead-letter-reason} and {@code dead-letter-exception-class-name} properties.
+ */
+public class DeadLetterPublisher implements PersistentMessagePublisher.MessagePublishReceiptListener {
+
+    public static final String DEAD_LETTER_REASON = "dead-letter-reason";
+    public static final String DEAD_LETTER_EXCEPTION_CLASS_NAME = "dead-letter-exception-class-name";
+
+    private final MessagingService solace;
+    private final PersistentMessagePublisher publisher;
+    private final Topic topic;
+
+    public DeadLetterPublisher(MessagingService solace, String topic) {
+        this.solace = solace;
+        this.topic = Topic.of(topic);
+        this.publisher = solace.createPersistentMessagePublisherBuilder().build();
+        this.publisher.setMessagePublishReceiptListener(this);
+        this.publisher.start();
+    }
+
+    public String getTopic() {
+        return topic.getName();
+    }
+
+    /**
+     * @return a stage completed once the broker has received the dead-letter message
+     */
+    public CompletionStage<Void> publish(InboundMessage message, Throwable reason) {
+        CompletableFuture<Void> receipt = new CompletableFuture<>();
+        try {
+            OutboundMessageBuilder builder = solace.messageBuilder();
+            Map<String, String> properties = message.getProperties();
+            if (properties != null) {
+                properties.forEach(builder::withProperty);
+            }
+            if (message.getApplicationMessageId() != null) {
+                builder.withApplicationMessageId(message.getApplicationMessageId());
+            }
+            if (message.getApplicationMessageType() != null) {
+                builder.withApplicationMessageType(message.getApplicationMessageType());
+            }
+            String contentType = message.getRestInteroperabilitySupport().getHTTPContentType();
+            if (contentType != null) {
+                // The builder rejects a null encoding
+                String contentEncoding = message.getRestInteroperabilitySupport().getHTTPContentEncoding();
+                builder.withHTTPContentHeader(contentType, contentEncoding == null ? "" : contentEncoding);
+            }
+            if (reason != null) {
+                builder.withProperty(DEAD_LETTER_EXCEPTION_CLASS_NAME, reason.getClass().getName());
+                if (reason.getMessage() != null) {
+                    builder.withProperty(DEAD_LETTER_REASON, reason.getMessage());
+                }
+            }
+            publisher.publish(builder.build(message.getPayloadAsBytes()), topic, receipt);
+        } catch (Throwable t) {
+            receipt.completeExceptionally(t);
+        }
+        return receipt;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void onPublishReceipt(PersistentMessagePublisher.PublishReceipt publishReceipt) {
+        CompletableFuture<Void> receipt = (CompletableFuture<Void>) publishReceipt.getUserContext();
+        PubSubPlusClientException exception = publishReceipt.getException();
+        if (exception != null) {
+            receipt.completeExceptionally(exception);
+        } else {
+            receipt.complete(null);
+        }
+    }
+
+    public CompletableFuture<Void> close(long timeout) {
+        return publisher.terminateAsync(timeout);
+    }
+}
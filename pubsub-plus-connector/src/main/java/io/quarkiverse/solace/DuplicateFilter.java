@@ -0,0 +1,178 @@
+package io.quarkiverse.solace;
+
+import static io.quarkiverse.solace.i18n.SolaceExceptions.ex;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import com.solace.messaging.receiver.InboundMessage;
+
+/**
+ * Detects inbound messages already processed, by key.
+ * <p>
+ * Keys are recorded once their message is acked, so that a message nacked and redelivered is processed again,
+ * while a message redelivered or republished after being acked is detected as a duplicate.
+ * Only 64-bit hashes of the keys are kept, in an open addressing hash set bounded to {@code maxSize} entries.
+ * A ring buffer keeps the insertion order, evicting the oldest keys once expired or when the set is full.
+ */
+public class DuplicateFilter {
+
+    public static final String APPLICATION_MESSAGE_ID = "application-message-id";
+    public static final String PROPERTY_PREFIX = "property:";
+
+    // Keys hashing to 0 are remapped, 0 marking free slots
+    private static final long FREE = 0L;
+
+    private final Function<InboundMessage, String> key;
+    private final long ttlNanos;
+
+    // Recorded hashes, from the oldest at tail
+    private final long[] ring;
+    private final long[] recordedAt;
+    private int tail;
+    private int size;
+
+    private final long[] table;
+    private final int mask;
+
+    /**
+     * @param source {@code application-message-id} or {@code property:<name>}
+     * @param maxSize the maximum number of keys recorded
+     * @param ttl the duration in milliseconds keys are recorded for
+     */
+    public DuplicateFilter(String source, int maxSize, long ttl) {
+        maxSize = Math.max(maxSize, 1);
+        this.key = key(source);
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttl);
+        this.ring = new long[maxSize];
+        this.recordedAt = new long[maxSize];
+        // At most half full, keeping the probe sequences short
+        int capacity = Integer.highestOneBit(maxSize * 2 - 1) << 1;
+        this.table = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    private static Function<InboundMessage, String> key(String source) {
+        if (APPLICATION_MESSAGE_ID.equals(source)) {
+            return InboundMessage::getApplicationMessageId;
+        }
+        if (source.startsWith(PROPERTY_PREFIX) && source.length() > PROPERTY_PREFIX.length()) {
+            String name = source.substring(PROPERTY_PREFIX.length());
+            return message -> message.getProperty(name);
+        }
+        throw ex.illegalArgumentDuplicateKey(source);
+    }
+
+    /**
+     * @return whether the message key has been recorded, messages without key are never duplicates
+     */
+    public synchronized boolean isDuplicate(InboundMessage message) {
+        String k = key.apply(message);
+        if (k == null) {
+            return false;
+        }
+        expire(System.nanoTime());
+        return contains(hash(k));
+    }
+
+    /**
+     * Records the key of a processed message.
+     */
+    public synchronized void record(InboundMessage message) {
+        String k = key.apply(message);
+        if (k == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        expire(now);
+        long h = hash(k);
+        if (contains(h)) {
+            return;
+        }
+        if (size == ring.length) {
+            evictOldest();
+        }
+        int i = (tail + size) % ring.length;
+        ring[i] = h;
+        recordedAt[i] = now;
+        size++;
+        insert(h);
+    }
+
+    private void expire(long now) {
+        while (size > 0 && now - recordedAt[tail] > ttlNanos) {
+            evictOldest();
+        }
+    }
+
+    private void evictOldest() {
+        remove(ring[tail]);
+        tail = (tail + 1) % ring.length;
+        size--;
+    }
+
+    private boolean contains(long h) {
+        for (int i = slot(h);; i = (i + 1) & mask) {
+            long current = table[i];
+            if (current == h) {
+                return true;
+            }
+            if (current == FREE) {
+                return false;
+            }
+        }
+    }
+
+    private void insert(long h) {
+        int i = slot(h);
+        while (table[i] != FREE) {
+            i = (i + 1) & mask;
+        }
+        table[i] = h;
+    }
+
+    private void remove(long h) {
+        int i = slot(h);
+        while (table[i] != h) {
+            if (table[i] == FREE) {
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        // Shift back the following entries of the probe sequence, instead of leaving a tombstone
+        int j = i;
+        for (;;) {
+            j = (j + 1) & mask;
+            long current = table[j];
+            if (current == FREE) {
+                break;
+            }
+            int home = slot(current);
+            boolean reachable = i <= j ? i < home && home <= j : i < home || home <= j;
+            if (!reachable) {
+                table[i] = current;
+                i = j;
+            }
+        }
+        table[i] = FREE;
+    }
+
+    private int slot(long h) {
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the key, with a final mix spreading the low bits used for the slots.
+     */
+    private static long hash(String k) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < k.length(); i++) {
+            h ^= k.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h == FREE ? 1L : h;
+    }
+}
@@ -0,0 +1,105 @@
+package io.quarkiverse.solace;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.solace.messaging.receiver.InboundMessage;
+
+/**
+ * Records the end-to-end latencies of the messages of an incoming channel, once they are acked:
+ * from the receive timestamp, when the message left the broker for the consumer, and from the sender timestamp.
+ * <p>
+ * Latencies are recorded per topic pattern, the first pattern matching the destination of the message, or
+ * {@value #OTHER} if none does. The patterns are configured upfront, so that the number of series stays bounded.
+ */
+public class EndToEndLatency {
+
+    public static final String OTHER = "other";
+
+    private final TopicRouter<String> patterns;
+    private final Map<String, LatencyTimer> brokerToConsumer = new LinkedHashMap<>();
+    private final Map<String, LatencyTimer> senderToAck = new LinkedHashMap<>();
+
+    private EndToEndLatency(List<String> topicPatterns) {
+        this.patterns = topicPatterns.isEmpty() ? null : new TopicRouter<>();
+        for (String pattern : topicPatterns) {
+            patterns.add(pattern, pattern);
+            brokerToConsumer.put(pattern, new LatencyTimer());
+            senderToAck.put(pattern, new LatencyTimer());
+        }
+        brokerToConsumer.put(OTHER, new LatencyTimer());
+        senderToAck.put(OTHER, new LatencyTimer());
+    }
+
+    /**
+     * @return the end-to-end latency of the channel, {@code null} if not enabled
+     */
+    public static EndToEndLatency of(SolaceConnectorIncomingConfiguration ic) {
+        if (!ic.getLatencyEndToEnd()) {
+            return null;
+        }
+        List<String> topicPatterns = new ArrayList<>();
+        ic.getLatencyTopicPatterns().ifPresent(patterns -> {
+            for (String pattern : patterns.split(",")) {
+                topicPatterns.add(pattern.trim());
+            }
+        });
+        return new EndToEndLatency(topicPatterns);
+    }
+
+    void record(InboundMessage msg) {
+        long now = System.currentTimeMillis();
+        String pattern = OTHER;
+        if (patterns != null) {
+            List<String> matched = patterns.route(msg.getDestinationName());
+            if (!matched.isEmpty()) {
+                pattern = matched.get(0);
+            }
+        }
+        long receivedAt = msg.getTimeStamp();
+        if (receivedAt > 0) {
+            brokerToConsumer.get(pattern).record(TimeUnit.MILLISECONDS.toNanos(now - receivedAt));
+        }
+        Long sentAt = senderTimestamp(msg);
+        if (sentAt != null) {
+            senderToAck.get(pattern).record(TimeUnit.MILLISECONDS.toNanos(now - sentAt));
+        }
+    }
+
+    /**
+     * @return the sender timestamp set by the API, or else by an outgoing channel stamping sender timestamps
+     */
+    static Long senderTimestamp(InboundMessage msg) {
+        Long sentAt = msg.getSenderTimestamp();
+        if (sentAt != null) {
+            return sentAt;
+        }
+        String stamped = msg.getProperty(SolaceOutboundMetadata.SENDER_TIMESTAMP_PROPERTY);
+        if (stamped != null) {
+            try {
+                return Long.parseLong(stamped);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the latencies from the receive timestamp to the ack, by topic pattern
+     */
+    public Map<String, LatencyTimer> getBrokerToConsumer() {
+        return Collections.unmodifiableMap(brokerToConsumer);
+    }
+
+    /**
+     * @return the latencies from the sender timestamp to the ack, by topic pattern
+     */
+    public Map<String, LatencyTimer> getSenderToAck() {
+        return Collections.unmodifiableMap(senderToAck);
+    }
+}
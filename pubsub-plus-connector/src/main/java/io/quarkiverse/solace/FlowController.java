@@ -0,0 +1,140 @@
+package io.quarkiverse.solace;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+import com.solace.messaging.receiver.ReceiverFlowControl;
+
+/**
+ * Pauses the receiver when too many delivered messages are not settled, and resumes it once enough have been settled.
+ * <p>
+ * Delivered messages not settled are both the ones waiting for downstream demand and the ones being processed,
+ * so pausing keeps the messages on the broker instead of accumulating them in memory.
+ * <p>
+ * Pausing does not stop the messages already on their way to the receiver. When a maximum number of unsettled messages
+ * is set, each delivered message also takes a permit, released once the message is settled, strictly bounding the
+ * messages held by the channel.
+ * <p>
+ * The receiver is also paused while the messages it pushed wait for downstream demand in a full buffer, see
+ * {@link #backlogged(boolean)}.
+ * <p>
+ * The unsettled messages are also counted without watermark, for the channel to wait for them on shutdown.
+ */
+public class FlowController {
+
+    private final ReceiverFlowControl receiver;
+    private final long highWatermark;
+    private final long lowWatermark;
+    private final Semaphore permits;
+    private final InflightTracker unsettled = new InflightTracker();
+    private volatile boolean paused;
+    private volatile boolean closed;
+    private volatile boolean backlogged;
+    // Guarded by this
+    private boolean overWatermark;
+    private boolean draining;
+
+    /**
+     * @param highWatermark the number of unsettled messages pausing the receiver
+     * @param lowWatermark the number of unsettled messages resuming the receiver
+     * @param maxUnsettled the maximum number of unsettled messages, unbounded if {@code 0}
+     */
+    public FlowController(ReceiverFlowControl receiver, long highWatermark, long lowWatermark, int maxUnsettled) {
+        this.receiver = receiver;
+        this.highWatermark = highWatermark;
+        this.lowWatermark = Math.min(lowWatermark, highWatermark - 1);
+        this.permits = maxUnsettled > 0 ? new Semaphore(maxUnsettled) : null;
+    }
+
+    /**
+     * Waits until a message can be received without exceeding the maximum number of unsettled messages.
+     * Must be called from the thread receiving the messages, before {@link #received()}.
+     */
+    public void acquire() {
+        if (permits != null && !closed) {
+            permits.acquireUninterruptibly();
+        }
+    }
+
+    /**
+     * Gives back the permit taken by {@link #acquire()} when no message was received.
+     */
+    public void release() {
+        if (permits != null) {
+            permits.release();
+        }
+    }
+
+    public void received() {
+        if (unsettled.increment() >= highWatermark && !paused) {
+            updateFlow();
+        }
+    }
+
+    public void settled() {
+        release();
+        if (unsettled.decrement() <= lowWatermark && paused) {
+            updateFlow();
+        }
+    }
+
+    /**
+     * Pauses the receiver while the messages it delivered wait for downstream demand in a full buffer, and resumes it
+     * once the buffer has room again, unless paused for other reasons. Never blocks the calling thread.
+     */
+    public void backlogged(boolean backlogged) {
+        this.backlogged = backlogged;
+        updateFlow();
+    }
+
+    /**
+     * Unblocks the threads waiting for a permit, messages are no longer bounded afterward.
+     */
+    public void close() {
+        closed = true;
+        if (permits != null) {
+            permits.release(Integer.MAX_VALUE / 2);
+        }
+    }
+
+    private synchronized void updateFlow() {
+        // Flag first then check again, a concurrent settlement missing the flag is caught by the next iteration
+        for (;;) {
+            long current = unsettled.get();
+            if (current >= highWatermark) {
+                overWatermark = true;
+            } else if (current <= lowWatermark) {
+                overWatermark = false;
+            }
+            boolean pause = draining || backlogged || overWatermark;
+            if (pause == paused) {
+                return;
+            }
+            paused = pause;
+            if (pause) {
+                receiver.pause();
+            } else {
+                receiver.resume();
+            }
+        }
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    public long getUnsettled() {
+        return unsettled.get();
+    }
+
+    /**
+     * Pauses the receiver for good, to settle the messages already delivered.
+     *
+     * @return a stage completed once every delivered message has been settled
+     */
+    public synchronized CompletableFuture<Void> drain() {
+        draining = true;
+        updateFlow();
+        return unsettled.whenDrained();
+    }
+}
@@ -0,0 +1,46 @@
+package io.quarkiverse.solace;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the messages in flight, notifying once none are left while draining.
+ */
+public class InflightTracker {
+
+    private final AtomicLong inflight = new AtomicLong();
+    private volatile CompletableFuture<Void> drained;
+
+    public long increment() {
+        return inflight.incrementAndGet();
+    }
+
+    public long decrement() {
+        long count = inflight.decrementAndGet();
+        if (count == 0) {
+            CompletableFuture<Void> d = drained;
+            if (d != null) {
+                d.complete(null);
+            }
+        }
+        return count;
+    }
+
+    public long get() {
+        return inflight.get();
+    }
+
+    /**
+     * @return a stage completed once no message is in flight
+     */
+    public synchronized CompletableFuture<Void> whenDrained() {
+        if (drained == null) {
+            drained = new CompletableFuture<>();
+        }
+        // Checked after publishing the future, not to miss a concurrent decrement
+        if (inflight.get() <= 0) {
+            drained.complete(null);
+        }
+        return drained;
+    }
+}
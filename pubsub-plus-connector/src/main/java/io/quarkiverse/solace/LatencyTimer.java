@@ -0,0 +1,79 @@
+package io.quarkiverse.solace;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records latencies on the message path with striped counters, so that concurrent recordings do not contend.
+ * <p>
+ * Latencies are also counted in power-of-two buckets of nanoseconds, to estimate percentiles since the channel
+ * started. The buckets are only allocated on the first recording.
+ */
+public class LatencyTimer {
+
+    private static final int BUCKETS = Long.SIZE + 1;
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private volatile LongAdder[] buckets;
+
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        count.increment();
+        totalNanos.add(nanos);
+        // Bucket i counts the latencies lower than 2^i nanoseconds
+        buckets()[Long.SIZE - Long.numberOfLeadingZeros(nanos)].increment();
+    }
+
+    private LongAdder[] buckets() {
+        LongAdder[] current = buckets;
+        if (current == null) {
+            synchronized (this) {
+                current = buckets;
+                if (current == null) {
+                    current = new LongAdder[BUCKETS];
+                    for (int i = 0; i < BUCKETS; i++) {
+                        current[i] = new LongAdder();
+                    }
+                    buckets = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public double getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    /**
+     * @param percentile the percentile, between 0 and 1
+     * @return the upper bound in nanoseconds of the bucket holding the percentile, 0 if nothing has been recorded
+     */
+    public double getPercentileNanos(double percentile) {
+        LongAdder[] current = buckets;
+        if (current == null) {
+            return 0;
+        }
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = current[i].sum();
+            total += counts[i];
+        }
+        long rank = (long) Math.ceil(percentile * total);
+        long cumulated = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            cumulated += counts[i];
+            if (cumulated >= rank && counts[i] > 0) {
+                return i == 0 ? 0 : Math.pow(2, i) - 1;
+            }
+        }
+        return 0;
+    }
+}
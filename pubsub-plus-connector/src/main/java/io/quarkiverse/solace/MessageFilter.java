@@ -0,0 +1,128 @@
+package io.quarkiverse.solace;
+
+import static io.quarkiverse.solace.i18n.SolaceExceptions.ex;
+
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.solace.messaging.receiver.InboundMessage;
+
+/**
+ * Selects the inbound messages of a channel on their headers only, before their payload is decoded.
+ * <p>
+ * The criteria are compiled once per channel and all of them must match: the destination matches one of the topic
+ * patterns, the message has every user property with the expected value, its application message type is one of the
+ * expected ones, and so is its class of service. Messages not selected are acked without being dispatched.
+ */
+public class MessageFilter {
+
+    private final TopicRouter<Boolean> topics;
+    private final String[] propertyNames;
+    private final String[] propertyValues;
+    private final Set<String> applicationMessageTypes;
+    // Bit i set when the class of service i is selected
+    private final int classesOfService;
+    private final LongAdder filtered = new LongAdder();
+
+    private MessageFilter(TopicRouter<Boolean> topics, String[] propertyNames, String[] propertyValues,
+            Set<String> applicationMessageTypes, int classesOfService) {
+        this.topics = topics;
+        this.propertyNames = propertyNames;
+        this.propertyValues = propertyValues;
+        this.applicationMessageTypes = applicationMessageTypes;
+        this.classesOfService = classesOfService;
+    }
+
+    /**
+     * @return the filter of the channel, {@code null} if no criteria is configured
+     */
+    public static MessageFilter of(SolaceConnectorIncomingConfiguration ic) {
+        Optional<String> topicPatterns = ic.getFilterTopics();
+        Optional<String> properties = ic.getFilterProperties();
+        Optional<String> types = ic.getFilterApplicationMessageTypes();
+        Optional<String> classes = ic.getFilterClassOfService();
+        if (topicPatterns.isEmpty() && properties.isEmpty() && types.isEmpty() && classes.isEmpty()) {
+            return null;
+        }
+        TopicRouter<Boolean> topics = null;
+        if (topicPatterns.isPresent()) {
+            topics = new TopicRouter<>();
+            for (String pattern : topicPatterns.get().split(",")) {
+                topics.add(pattern.trim(), Boolean.TRUE);
+            }
+        }
+        String[] propertyNames = null;
+        String[] propertyValues = null;
+        if (properties.isPresent()) {
+            String[] entries = properties.get().split(",");
+            propertyNames = new String[entries.length];
+            propertyValues = new String[entries.length];
+            for (int i = 0; i < entries.length; i++) {
+                int separator = entries[i].indexOf('=');
+                if (separator <= 0) {
+                    throw ex.illegalArgumentFilter("filter.properties", entries[i], ic.getChannel());
+                }
+                propertyNames[i] = entries[i].substring(0, separator).trim();
+                propertyValues[i] = entries[i].substring(separator + 1).trim();
+            }
+        }
+        Set<String> applicationMessageTypes = null;
+        if (types.isPresent()) {
+            applicationMessageTypes = new HashSet<>();
+            for (String type : types.get().split(",")) {
+                applicationMessageTypes.add(type.trim());
+            }
+        }
+        int classesOfService = -1;
+        if (classes.isPresent()) {
+            classesOfService = 0;
+            for (String cos : classes.get().split(",")) {
+                try {
+                    int value = Integer.parseInt(cos.trim());
+                    if (value < 0 || value > 2) {
+                        throw ex.illegalArgumentFilter("filter.class-of-service", cos, ic.getChannel());
+                    }
+                    classesOfService |= 1 << value;
+                } catch (NumberFormatException e) {
+                    throw ex.illegalArgumentFilter("filter.class-of-service", cos, ic.getChannel());
+                }
+            }
+        }
+        return new MessageFilter(topics, propertyNames, propertyValues, applicationMessageTypes, classesOfService);
+    }
+
+    public boolean accept(InboundMessage msg) {
+        if (matches(msg)) {
+            return true;
+        }
+        filtered.increment();
+        return false;
+    }
+
+    private boolean matches(InboundMessage msg) {
+        // Cheapest criteria first
+        if ((classesOfService & (1 << msg.getClassOfService())) == 0) {
+            return false;
+        }
+        if (applicationMessageTypes != null && !applicationMessageTypes.contains(msg.getApplicationMessageType())) {
+            return false;
+        }
+        if (propertyNames != null) {
+            for (int i = 0; i < propertyNames.length; i++) {
+                if (!propertyValues[i].equals(msg.getProperty(propertyNames[i]))) {
+                    return false;
+                }
+            }
+        }
+        return topics == null || !topics.route(msg.getDestinationName()).isEmpty();
+    }
+
+    /**
+     * @return the number of messages filtered out
+     */
+    public long getFiltered() {
+        return filtered.sum();
+    }
+}
@@ -0,0 +1,79 @@
+package io.quarkiverse.solace;
+
+import static io.quarkiverse.solace.i18n.SolaceExceptions.ex;
+
+import com.solace.messaging.receiver.InboundMessage;
+
+/**
+ * Extracts the ordering key of inbound messages as a hash, messages without key hash to {@code 0}.
+ */
+@FunctionalInterface
+public interface OrderingKey {
+
+    String APPLICATION_MESSAGE_ID = "application-message-id";
+    String PARTITION_KEY = "partition-key";
+    String PROPERTY_PREFIX = "property:";
+    String TOPIC_LEVEL_PREFIX = "topic-level:";
+
+    int hash(InboundMessage message);
+
+    /**
+     * @param source {@code application-message-id}, {@code partition-key}, {@code property:<name>}
+     *        or {@code topic-level:<index>}, topic levels being indexed from 0
+     */
+    static OrderingKey of(String source) {
+        if (APPLICATION_MESSAGE_ID.equals(source)) {
+            return message -> hash(message.getApplicationMessageId());
+        }
+        if (PARTITION_KEY.equals(source)) {
+            return message -> hash(message.getProperty(SolaceOutboundMetadata.PARTITION_KEY_PROPERTY));
+        }
+        if (source.startsWith(PROPERTY_PREFIX)) {
+            String name = source.substring(PROPERTY_PREFIX.length());
+            return message -> hash(message.getProperty(name));
+        }
+        if (source.startsWith(TOPIC_LEVEL_PREFIX)) {
+            try {
+                int level = Integer.parseInt(source.substring(TOPIC_LEVEL_PREFIX.length()));
+                return message -> topicLevelHash(message.getDestinationName(), level);
+            } catch (NumberFormatException e) {
+                throw ex.illegalArgumentOrderingKey(source);
+            }
+        }
+        throw ex.illegalArgumentOrderingKey(source);
+    }
+
+    /**
+     * @return the lane of the given key hash, in {@code [0, lanes)}
+     */
+    static int lane(int hash, int lanes) {
+        return Math.floorMod(hash ^ (hash >>> 16), lanes);
+    }
+
+    private static int hash(String key) {
+        return key == null ? 0 : key.hashCode();
+    }
+
+    private static int topicLevelHash(String topic, int level) {
+        if (topic == null) {
+            return 0;
+        }
+        int start = 0;
+        for (int i = 0; i < level; i++) {
+            start = topic.indexOf('/', start) + 1;
+            if (start == 0) {
+                return 0;
+            }
+        }
+        int end = topic.indexOf('/', start);
+        if (end < 0) {
+            end = topic.length();
+        }
+        // Hash the level in place, without extracting it
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + topic.charAt(i);
+        }
+        return h;
+    }
+}
@@ -0,0 +1,17 @@
+package io.quarkiverse.solace;
+
+/**
+ * Extracts the partition key of outgoing messages from their payload.
+ * <p>
+ * Implementations are CDI beans exposed with an {@link io.smallrye.common.annotation.Identifier},
+ * selected with the {@code partition-key.extractor} attribute of outgoing channels.
+ * The partition key set explicitly with {@link SolaceOutboundMetadata} takes precedence.
+ */
+@FunctionalInterface
+public interface PartitionKeyExtractor {
+
+    /**
+     * @return the partition key, or {@code null} for a message without partition key
+     */
+    String extract(Object payload);
+}
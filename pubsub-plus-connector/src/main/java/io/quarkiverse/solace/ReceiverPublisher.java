@@ -0,0 +1,242 @@
+package io.quarkiverse.solace;
+
+import static io.quarkiverse.solace.i18n.SolaceExceptions.ex;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow.Publisher;
+import java.util.concurrent.Flow.Subscriber;
+import java.util.concurrent.Flow.Subscription;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import com.solace.messaging.receiver.InboundMessage;
+import com.solace.messaging.receiver.MessageReceiver;
+
+import io.quarkiverse.solace.i18n.SolaceLogging;
+import io.smallrye.mutiny.helpers.Subscriptions;
+import io.vertx.mutiny.core.Context;
+
+/**
+ * Push-based publisher of inbound messages.
+ * <p>
+ * Messages delivered by the receiver's dispatch thread are added to a queue, which is drained on the channel context
+ * according to downstream demand. A single context hop drains as many messages as there are requested, instead of one
+ * hop per message.
+ * <p>
+ * The dispatch thread is shared by every receiver of the messaging service, so it never waits for room in the queue.
+ * Once the queue holds {@code capacity} messages, a persistent receiver is paused until half of them are drained, the
+ * messages already on their way being queued meanwhile. A direct receiver cannot be paused, the messages overflowing
+ * the queue are dropped or buffered according to its back-pressure strategy.
+ */
+public class ReceiverPublisher implements Publisher<InboundMessage>, Subscription, MessageReceiver.MessageHandler {
+
+    /**
+     * What happens to the messages delivered while the queue is full.
+     */
+    public enum Overflow {
+        /** Queued, the receiver being paused */
+        PAUSE,
+        /** Queued, the oldest queued message being dropped */
+        DROP_OLDEST,
+        /** Dropped */
+        DROP_LATEST,
+        /** Queued without bound */
+        BUFFER
+    }
+
+    private final String channel;
+    private final Context context;
+    private final Consumer<MessageReceiver.MessageHandler> receiveAsync;
+    private final int capacity;
+    private final Overflow overflow;
+    private final FlowController flowController;
+    private final Queue<InboundMessage> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicReference<Subscriber<? super InboundMessage>> downstream = new AtomicReference<>();
+    private final AtomicBoolean receiving = new AtomicBoolean();
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicInteger wip = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile boolean cancelled;
+    private volatile boolean done;
+    private volatile boolean overflowing;
+    private boolean completed;
+
+    /**
+     * @param flowController the flow control pausing the receiver, for the {@link Overflow#PAUSE} overflow only
+     */
+    public ReceiverPublisher(String channel, Context context, Consumer<MessageReceiver.MessageHandler> receiveAsync,
+            int capacity, Overflow overflow, FlowController flowController) {
+        this.channel = channel;
+        this.context = context;
+        this.receiveAsync = receiveAsync;
+        this.capacity = capacity;
+        this.overflow = overflow;
+        this.flowController = flowController;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super InboundMessage> subscriber) {
+        if (!downstream.compareAndSet(null, subscriber)) {
+            Subscriptions.fail(subscriber, ex.illegalStateOnlyOneSubscriber());
+        } else {
+            subscriber.onSubscribe(this);
+            if (done) {
+                schedule();
+            }
+        }
+    }
+
+    @Override
+    public void request(long n) {
+        if (n <= 0) {
+            cancel();
+            Subscriber<? super InboundMessage> subscriber = downstream.get();
+            if (subscriber != null) {
+                subscriber.onError(Subscriptions.getInvalidRequestException());
+            }
+            return;
+        }
+        Subscriptions.add(requested, n);
+        // The handler is registered on first demand, once the receiver has been started
+        if (receiving.compareAndSet(false, true)) {
+            receiveAsync.accept(this);
+        }
+        schedule();
+    }
+
+    @Override
+    public void cancel() {
+        cancelled = true;
+        schedule();
+    }
+
+    /**
+     * Completes the stream, the messages still queued are not emitted. Called once the channel is closed.
+     */
+    public void complete() {
+        done = true;
+        if (downstream.get() != null) {
+            schedule();
+        }
+    }
+
+    /**
+     * @return the number of messages dropped by a direct receiver
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    @Override
+    public void onMessage(InboundMessage message) {
+        if (cancelled || done) {
+            return;
+        }
+        if (queued.get() >= capacity) {
+            switch (overflow) {
+                case DROP_LATEST:
+                    dropped();
+                    return;
+                case DROP_OLDEST:
+                    if (queue.poll() != null) {
+                        queued.decrementAndGet();
+                        dropped();
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        queue.offer(message);
+        if (queued.incrementAndGet() >= capacity && !overflowing) {
+            updateOverflow();
+        }
+        schedule();
+    }
+
+    private void dropped() {
+        dropped.incrementAndGet();
+        if (!overflowing) {
+            updateOverflow();
+        }
+    }
+
+    /**
+     * Starts overflowing once the queue is full, and stops once half of it is drained. The transitions are serialized,
+     * for the receiver not to be left paused by a pause racing with the resume.
+     */
+    private synchronized void updateOverflow() {
+        int current = queued.get();
+        boolean full = current >= capacity || overflowing && current > capacity / 2;
+        if (full == overflowing) {
+            return;
+        }
+        overflowing = full;
+        if (overflow == Overflow.PAUSE) {
+            flowController.backlogged(full);
+        } else if (full && overflow != Overflow.BUFFER) {
+            SolaceLogging.log.messagesDropped(channel, capacity);
+        }
+    }
+
+    private void schedule() {
+        if (wip.getAndIncrement() == 0) {
+            context.runOnContext(this::drain);
+        }
+    }
+
+    private void drain() {
+        int missed = 1;
+        Subscriber<? super InboundMessage> subscriber = downstream.get();
+        for (;;) {
+            if (cancelled) {
+                clear();
+                return;
+            }
+            if (done) {
+                clear();
+                if (!completed) {
+                    completed = true;
+                    subscriber.onComplete();
+                }
+                return;
+            }
+            long r = requested.get();
+            long emitted = 0L;
+            while (emitted != r) {
+                InboundMessage message = queue.poll();
+                if (message == null) {
+                    break;
+                }
+                queued.decrementAndGet();
+                subscriber.onNext(message);
+                emitted++;
+                if (cancelled) {
+                    clear();
+                    return;
+                }
+            }
+            if (emitted != 0 && r != Long.MAX_VALUE) {
+                requested.addAndGet(-emitted);
+            }
+            if (overflowing && queued.get() <= capacity / 2) {
+                updateOverflow();
+            }
+            missed = wip.addAndGet(-missed);
+            if (missed == 0) {
+                break;
+            }
+        }
+    }
+
+    private void clear() {
+        while (queue.poll() != null) {
+            queued.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package io.quarkiverse.solace;
+
+import static io.quarkiverse.solace.i18n.SolaceExceptions.ex;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import com.solace.messaging.receiver.InboundMessage;
+import com.solace.messaging.receiver.InboundMessage.ReplicationGroupMessageId;
+
+import io.quarkiverse.solace.i18n.SolaceLogging;
+
+/**
+ * Checkpoints the replication group message id of the highest contiguously processed message, for the replay to
+ * resume after it on restart.
+ * <p>
+ * Messages are tracked in the order they are received. A message is processed once acked, or settled as
+ * {@code rejected}; a message settled as {@code failed} holds the checkpoint until redelivered and processed, or until
+ * the failed timeout elapses, the broker having possibly moved it to a dead message queue after its last redelivery. The
+ * checkpoint only moves past a message once every message received before it has been processed, so that resuming
+ * never skips a message, at the cost of redelivering the ones processed after it.
+ * <p>
+ * The checkpoint is written to a memory-mapped file, at most once per interval, and forced to the storage if
+ * {@code fsync} is set. Without {@code fsync}, the checkpoint survives a crash of the process but not of the host.
+ * The file holds two slots written alternately, each with a sequence number and a checksum, so that a torn write
+ * leaves the previous checkpoint readable.
+ */
+public class ReplayCheckpoint {
+
+    private static final int SLOT_SIZE = 256;
+    // sequence (long), length (int), checksum (int)
+    private static final int SLOT_HEADER = 16;
+
+    private final String channel;
+    private final Path path;
+    private final boolean fsync;
+    private final long failedTimeout;
+    private final FileChannel file;
+    private final MappedByteBuffer buffer;
+    private final ReplicationGroupMessageId restored;
+    private final ScheduledExecutorService writer;
+    // Held while writing, not to block the reception on a forced write
+    private final Object writeLock = new Object();
+
+    // Messages received and not processed yet, in reception order
+    private final ArrayDeque<Entry> pending = new ArrayDeque<>();
+    private final Map<InboundMessage, Entry> entries = new IdentityHashMap<>();
+    private volatile ReplicationGroupMessageId latest;
+    private ReplicationGroupMessageId written;
+    private long sequence;
+
+    /**
+     * @param interval the time in milliseconds between two writes of the checkpoint
+     * @param fsync whether each write is forced to the storage
+     * @param failedTimeout the time in milliseconds a message settled as {@code failed} holds the checkpoint
+     */
+    public ReplayCheckpoint(String channel, String path, long interval, boolean fsync, long failedTimeout) {
+        this.channel = channel;
+        this.path = Paths.get(path);
+        this.fsync = fsync;
+        this.failedTimeout = TimeUnit.MILLISECONDS.toNanos(failedTimeout);
+        try {
+            Path parent = this.path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            this.file = FileChannel.open(this.path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            // Mapping beyond the end grows the file, a new file reads as two empty slots
+            this.buffer = file.map(FileChannel.MapMode.READ_WRITE, 0, 2 * SLOT_SIZE);
+        } catch (IOException e) {
+            throw ex.illegalStateCheckpointFile(path, channel, e);
+        }
+        this.restored = restore();
+        this.writer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "solace-checkpoint-" + channel);
+            thread.setDaemon(true);
+            return thread;
+        });
+        writer.scheduleWithFixedDelay(this::write, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return the checkpoint read from the file when opened, {@code null} if none
+     */
+    public ReplicationGroupMessageId getRestored() {
+        return restored;
+    }
+
+    /**
+     * @return the replication group message id of the highest contiguously processed message, {@code null} if none
+     */
+    public ReplicationGroupMessageId getLatest() {
+        return latest;
+    }
+
+    private ReplicationGroupMessageId restore() {
+        String id = null;
+        for (int slot = 0; slot < 2; slot++) {
+            int offset = slot * SLOT_SIZE;
+            long slotSequence = buffer.getLong(offset);
+            int length = buffer.getInt(offset + 8);
+            if (slotSequence <= 0 || length <= 0 || length > SLOT_SIZE - SLOT_HEADER || slotSequence < sequence) {
+                continue;
+            }
+            byte[] bytes = new byte[length];
+            for (int i = 0; i < length; i++) {
+                bytes[i] = buffer.get(offset + SLOT_HEADER + i);
+            }
+            if (buffer.getInt(offset + 12) != checksum(slotSequence, bytes)) {
+                continue;
+            }
+            sequence = slotSequence;
+            id = new String(bytes, StandardCharsets.UTF_8);
+        }
+        if (id == null) {
+            return null;
+        }
+        try {
+            return ReplicationGroupMessageId.of(id);
+        } catch (RuntimeException e) {
+            SolaceLogging.log.invalidCheckpoint(channel, path.toString(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Tracks a received message. A message redelivered by the broker takes the place of its previous delivery.
+     */
+    public synchronized void received(InboundMessage message) {
+        ReplicationGroupMessageId id = message.getReplicationGroupMessageId();
+        if (id == null) {
+            // Not spooled with a replication group message id, there is nothing to resume from
+            return;
+        }
+        if (message.isRedelivered()) {
+            String redelivered = id.toString();
+            for (Entry entry : pending) {
+                if (!entry.processed && entry.id.toString().equals(redelivered)) {
+                    entries.remove(entry.message);
+                    entry.message = message;
+                    entry.failedAt = 0;
+                    entries.put(message, entry);
+                    return;
+                }
+            }
+        }
+        Entry entry = new Entry(message, id);
+        pending.add(entry);
+        entries.put(message, entry);
+    }
+
+    /**
+     * @param processed {@code true} if the message is done with, {@code false} if it will be redelivered
+     */
+    public synchronized void settled(InboundMessage message, boolean processed) {
+        if (!processed) {
+            Entry entry = entries.get(message);
+            if (entry != null && entry.failedAt == 0) {
+                entry.failedAt = System.nanoTime();
+            }
+            return;
+        }
+        Entry entry = entries.remove(message);
+        if (entry == null) {
+            return;
+        }
+        entry.processed = true;
+        advance();
+    }
+
+    /**
+     * Moves the checkpoint past the processed messages, and past the failed ones not redelivered in time.
+     */
+    private synchronized void advance() {
+        ReplicationGroupMessageId advanced = null;
+        long now = System.nanoTime();
+        while (!pending.isEmpty()) {
+            Entry entry = pending.peek();
+            if (!entry.processed) {
+                if (entry.failedAt == 0 || now - entry.failedAt < failedTimeout) {
+                    break;
+                }
+                entries.remove(entry.message);
+                SolaceLogging.log.checkpointFailedMessageSkipped(channel, entry.id.toString(),
+                        TimeUnit.NANOSECONDS.toMillis(now - entry.failedAt));
+            }
+            advanced = pending.poll().id;
+        }
+        if (advanced != null) {
+            latest = advanced;
+        }
+    }
+
+    /**
+     * Writes the latest checkpoint, if it changed since the previous write.
+     */
+    private void write() {
+        advance();
+        synchronized (writeLock) {
+            ReplicationGroupMessageId current = latest;
+            if (current == null || current == written) {
+                return;
+            }
+            byte[] bytes = current.toString().getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > SLOT_SIZE - SLOT_HEADER) {
+                SolaceLogging.log.checkpointNotWritten(channel, path.toString(), null);
+                return;
+            }
+            sequence++;
+            int offset = (int) (sequence % 2) * SLOT_SIZE;
+            // The sequence is written last, a slot torn before is discarded by its checksum
+            buffer.putInt(offset + 8, bytes.length);
+            buffer.putInt(offset + 12, checksum(sequence, bytes));
+            for (int i = 0; i < bytes.length; i++) {
+                buffer.put(offset + SLOT_HEADER + i, bytes[i]);
+            }
+            buffer.putLong(offset, sequence);
+            if (fsync) {
+                buffer.force();
+            }
+            written = current;
+        }
+    }
+
+    private static int checksum(long sequence, byte[] bytes) {
+        CRC32 crc = new CRC32();
+        for (int i = 0; i < 8; i++) {
+            crc.update((int) (sequence >>> (i * 8)));
+        }
+        crc.update(bytes, 0, bytes.length);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Writes the latest checkpoint and closes the file. To be called once the receivers have sent the pending
+     * settlements.
+     */
+    public void close() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(1, TimeUnit.SECONDS);
+            write();
+            buffer.force();
+            file.close();
+        } catch (IOException e) {
+            SolaceLogging.log.checkpointNotWritten(channel, path.toString(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class Entry {
+        final ReplicationGroupMessageId id;
+        InboundMessage message;
+        boolean processed;
+        // When settled as failed, 0 otherwise
+        long failedAt;
+
+        Entry(InboundMessage message, ReplicationGroupMessageId id) {
+            this.message = message;
+            this.id = id;
+        }
+    }
+}
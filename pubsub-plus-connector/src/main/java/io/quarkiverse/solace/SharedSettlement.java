@@ -0,0 +1,32 @@
+package io.quarkiverse.solace;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Settles once an inbound message routed to several channels of a shared receiver.
+ * The message is acked when every channel has acked it, and nacked as soon as one channel nacks it.
+ */
+class SharedSettlement {
+
+    private final AtomicInteger pending;
+    private final AtomicBoolean failed = new AtomicBoolean();
+
+    SharedSettlement(int channels) {
+        this.pending = new AtomicInteger(channels);
+    }
+
+    /**
+     * @return whether the ack is the last one and the message has to be acked
+     */
+    boolean acked() {
+        return pending.decrementAndGet() == 0 && !failed.get();
+    }
+
+    /**
+     * @return whether the nack is the first one and the message has to be nacked
+     */
+    boolean nacked() {
+        return failed.compareAndSet(false, true);
+    }
+}
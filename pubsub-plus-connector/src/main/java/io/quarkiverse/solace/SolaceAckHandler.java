@@ -1,23 +1,160 @@
 package io.quarkiverse.solace;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.solace.messaging.receiver.AcknowledgementSupport;
+import com.solace.messaging.receiver.InboundMessage;
 
 import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.core.Context;
 
 public class SolaceAckHandler {
 
     private final AcknowledgementSupport ackSupport;
+    private final FlowController flowController;
+    private final DuplicateFilter duplicateFilter;
+    private final ReplayCheckpoint checkpoint;
 
-    public SolaceAckHandler(AcknowledgementSupport ackSupport) {
+    // Ack coalescing, only set when enabled
+    private final Context context;
+    private final int maxSize;
+    private final long interval;
+    private final Queue<PendingAck> pending;
+    private final AtomicInteger pendingCount;
+
+    public SolaceAckHandler(AcknowledgementSupport ackSupport, FlowController flowController,
+            DuplicateFilter duplicateFilter, ReplayCheckpoint checkpoint) {
         this.ackSupport = ackSupport;
+        this.flowController = flowController;
+        this.duplicateFilter = duplicateFilter;
+        this.checkpoint = checkpoint;
+        this.context = null;
+        this.maxSize = 0;
+        this.interval = 0;
+        this.pending = null;
+        this.pendingCount = null;
+    }
+
+    /**
+     * Creates an ack handler coalescing acknowledgements.
+     * Acks are collected and flushed on the given context once {@code maxSize} acks are pending,
+     * or {@code interval} milliseconds after the first pending ack.
+     */
+    public SolaceAckHandler(AcknowledgementSupport ackSupport, FlowController flowController,
+            DuplicateFilter duplicateFilter, ReplayCheckpoint checkpoint, Context context, int maxSize, long interval) {
+        this.ackSupport = ackSupport;
+        this.flowController = flowController;
+        this.duplicateFilter = duplicateFilter;
+        this.checkpoint = checkpoint;
+        this.context = context;
+        this.maxSize = maxSize;
+        this.interval = interval;
+        this.pending = new ConcurrentLinkedQueue<>();
+        this.pendingCount = new AtomicInteger();
     }
 
     public CompletionStage<Void> handle(SolaceInboundMessage<?> msg) {
+        if (pending != null) {
+            return coalesce(msg.getMessage());
+        }
         return Uni.createFrom().voidItem()
-                .invoke(() -> ackSupport.ack(msg.getMessage()))
+                .invoke(() -> ack(msg.getMessage()))
                 .runSubscriptionOn(msg::runOnMessageContext)
                 .subscribeAsCompletionStage();
     }
+
+    /**
+     * Acks a message never dispatched to the application, from the receiver context.
+     */
+    public CompletionStage<Void> handle(InboundMessage message) {
+        if (pending != null) {
+            return coalesce(message);
+        }
+        try {
+            ack(message);
+            return CompletableFuture.completedFuture(null);
+        } catch (Throwable t) {
+            return CompletableFuture.failedFuture(t);
+        }
+    }
+
+    private void ack(InboundMessage message) {
+        try {
+            ackSupport.ack(message);
+            if (duplicateFilter != null) {
+                duplicateFilter.record(message);
+            }
+            if (checkpoint != null) {
+                checkpoint.settled(message, true);
+            }
+        } finally {
+            if (flowController != null) {
+                flowController.settled();
+            }
+        }
+    }
+
+    private CompletionStage<Void> coalesce(InboundMessage message) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        // Count before offering, so that a flush never drains more than counted
+        int count = pendingCount.incrementAndGet();
+        pending.offer(new PendingAck(message, future));
+        if (count == maxSize) {
+            context.runOnContext(this::flush);
+        } else if (count == 1) {
+            scheduleFlush();
+        }
+        return future;
+    }
+
+    private void scheduleFlush() {
+        context.owner().setTimer(interval, x -> context.runOnContext(this::flush));
+    }
+
+    /**
+     * Acks all pending messages and completes their ack stages together.
+     */
+    public void flush() {
+        if (pending == null) {
+            return;
+        }
+        List<CompletableFuture<Void>> acked = new ArrayList<>();
+        int drained = 0;
+        PendingAck ack;
+        while ((ack = pending.poll()) != null) {
+            drained++;
+            try {
+                ack(ack.message);
+                acked.add(ack.future);
+            } catch (Throwable t) {
+                ack.future.completeExceptionally(t);
+            }
+        }
+        for (CompletableFuture<Void> future : acked) {
+            future.complete(null);
+        }
+        int remaining = pendingCount.addAndGet(-drained);
+        if (remaining >= maxSize) {
+            context.runOnContext(this::flush);
+        } else if (remaining > 0) {
+            // Acks counted while flushing, not yet offered
+            scheduleFlush();
+        }
+    }
+
+    private static class PendingAck {
+        final InboundMessage message;
+        final CompletableFuture<Void> future;
+
+        PendingAck(InboundMessage message, CompletableFuture<Void> future) {
+            this.message = message;
+            this.future = future;
+        }
+    }
 }
@@ -1,12 +1,21 @@
 package io.quarkiverse.solace;
 
+import static io.quarkiverse.solace.i18n.SolaceExceptions.ex;
 import static io.smallrye.reactive.messaging.annotations.ConnectorAttribute.Direction.INCOMING;
 import static io.smallrye.reactive.messaging.annotations.ConnectorAttribute.Direction.INCOMING_AND_OUTGOING;
 import static io.smallrye.reactive.messaging.annotations.ConnectorAttribute.Direction.OUTGOING;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.Priority;
@@ -14,6 +23,8 @@ import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.context.BeforeDestroyed;
 import jakarta.enterprise.event.Observes;
 import jakarta.enterprise.event.Reception;
+import jakarta.enterprise.inject.Any;
+import jakarta.enterprise.inject.Instance;
 import jakarta.inject.Inject;
 
 import org.eclipse.microprofile.config.Config;
@@ -22,6 +33,8 @@ import org.eclipse.microprofile.reactive.messaging.spi.Connector;
 
 import com.solace.messaging.MessagingService;
 
+import io.quarkiverse.solace.codecs.PayloadCodecs;
+import io.smallrye.common.annotation.Identifier;
 import io.smallrye.reactive.messaging.annotations.ConnectorAttribute;
 import io.smallrye.reactive.messaging.connector.InboundConnector;
 import io.smallrye.reactive.messaging.connector.OutboundConnector;
@@ -32,18 +45,64 @@ import io.vertx.mutiny.core.Vertx;
 
 @ApplicationScoped
 @Connector(SolaceConnector.CONNECTOR_NAME)
-// TODO only persisted is implemented
-@ConnectorAttribute(name = "client.type", type = "string", direction = INCOMING_AND_OUTGOING, description = "Direct or persisted", defaultValue = "persisted")
+@ConnectorAttribute(name = "client.type", type = "string", direction = INCOMING_AND_OUTGOING, description = "The messaging type, `persisted` for guaranteed messaging, or `direct` for fire-and-forget messaging without acknowledgement nor publish receipt", defaultValue = "persisted")
 @ConnectorAttribute(name = "client.lazy.start", type = "boolean", direction = INCOMING_AND_OUTGOING, description = "Whether the receiver or publisher is started at initialization or lazily at subscription time", defaultValue = "false")
+@ConnectorAttribute(name = "client.shutdown.timeout", type = "long", direction = INCOMING_AND_OUTGOING, description = "The maximum time in milliseconds to drain the channel on shutdown, waiting for the messages in flight to be acked or to get their publish receipt. Channels are drained in parallel, within the longest timeout", defaultValue = "10000")
+@ConnectorAttribute(name = "metrics.enabled", type = "boolean", direction = INCOMING_AND_OUTGOING, description = "Whether the channel metrics are exposed as Micrometer meters tagged by channel, when Micrometer is available", defaultValue = "true")
+@ConnectorAttribute(name = "health.enabled", type = "boolean", direction = INCOMING_AND_OUTGOING, description = "Whether the channel reports its startup, readiness and liveness", defaultValue = "true")
+@ConnectorAttribute(name = "content-type", type = "string", direction = INCOMING_AND_OUTGOING, description = "The content type used to select the payload codec. For incoming channels it applies to messages without content type, for outgoing channels it applies to every payload instead of selecting the codec from the payload type")
 @ConnectorAttribute(name = "subscriptions", type = "string", direction = INCOMING, description = "The comma separated list of subscriptions, the channel name if empty")
+@ConnectorAttribute(name = "shared-receiver", type = "string", direction = INCOMING, description = "The name of a receiver shared by the channels using the same name. The first channel configures the receiver, each channel adds its `subscriptions` and receives the messages whose destination matches them, `*` and `>` wildcards included. A message matching several channels is acked once all of them ack it, a message matching none of them is nacked with the failure strategy of the first channel")
+@ConnectorAttribute(name = "direct.back-pressure.strategy", type = "string", direction = INCOMING, description = "The direct receiver backpressure strategy when the application does not keep up: `elastic` buffers every message, `drop-oldest` keeps the most recent messages in a bounded ring buffer, `drop-latest` discards the incoming messages once the buffer is full", defaultValue = "elastic")
+@ConnectorAttribute(name = "direct.back-pressure.buffer-capacity", type = "int", direction = INCOMING, description = "The direct receiver buffer capacity, for the `drop-oldest` and `drop-latest` backpressure strategies", defaultValue = "1024")
 @ConnectorAttribute(name = "persistent.queue.type", type = "string", direction = INCOMING, description = "The queue type of receiver", defaultValue = "durable-non-exclusive")
 @ConnectorAttribute(name = "persistent.queue.name", type = "string", direction = INCOMING, description = "The queue name of receiver")
 @ConnectorAttribute(name = "persistent.missing-resource-creation-strategy", type = "string", direction = INCOMING, description = "Missing resource creation strategy", defaultValue = "create-on-start")
 @ConnectorAttribute(name = "persistent.selector-query", type = "string", direction = INCOMING, description = "The receiver selector query")
-@ConnectorAttribute(name = "persistent.replay.strategy", type = "string", direction = INCOMING, description = "The receiver replay strategy")
+@ConnectorAttribute(name = "persistent.replay.strategy", type = "string", direction = INCOMING, description = "The receiver replay strategy: `all-messages`, `time-based`, `replication-group-message-id`, or `checkpoint` to resume after the last processed message, checkpointed to a local file")
 @ConnectorAttribute(name = "persistent.replay.timebased-start-time", type = "string", direction = INCOMING, description = "The receiver replay timebased start time")
 @ConnectorAttribute(name = "persistent.replay.replication-group-message-id", type = "string", direction = INCOMING, description = "The receiver replay replication group message id")
+@ConnectorAttribute(name = "persistent.replay.checkpoint.path", type = "string", direction = INCOMING, description = "The file holding the checkpoint of the `checkpoint` replay strategy. Defaults to `<channel>.checkpoint` in the working directory")
+@ConnectorAttribute(name = "persistent.replay.checkpoint.interval", type = "long", direction = INCOMING, description = "The time in milliseconds between two writes of the replay checkpoint", defaultValue = "1000")
+@ConnectorAttribute(name = "persistent.replay.checkpoint.failed-timeout", type = "long", direction = INCOMING, description = "The time in milliseconds a message nacked as `failed` holds the replay checkpoint waiting for its redelivery. Once elapsed, the checkpoint moves past it, the broker having possibly moved it to a dead message queue after its last redelivery", defaultValue = "60000")
+@ConnectorAttribute(name = "persistent.replay.checkpoint.fsync", type = "boolean", direction = INCOMING, description = "Whether each write of the replay checkpoint is forced to the storage, for the checkpoint to survive a crash of the host", defaultValue = "false")
+@ConnectorAttribute(name = "consumer.mode", type = "string", direction = INCOMING, description = "How messages are consumed from the receiver: `pull` polls the receiver from a dedicated thread, `push` registers an asynchronous handler feeding a queue drained according to the downstream demand. The handler never blocks: once the queue is full, a persistent receiver is paused, and a direct receiver applies its `direct.back-pressure.strategy` to the queue", defaultValue = "pull")
+@ConnectorAttribute(name = "consumer.buffer.capacity", type = "int", direction = INCOMING, description = "The number of messages pushed by the receiver waiting for the downstream demand before the receiver is paused, resumed once half of them have been dispatched. Only used when `consumer.mode` is `push`. With a `shared-receiver`, also the number of routed messages waiting for the demand of any of the channels sharing it before the receiver stops being consumed", defaultValue = "1024")
+@ConnectorAttribute(name = "consumer.poller.virtual-thread", type = "boolean", direction = INCOMING, description = "Whether the receiver is polled from a virtual thread instead of a platform thread, when `consumer.mode` is `pull`. Requires Java 21 or later", defaultValue = "false")
+@ConnectorAttribute(name = "concurrency", type = "int", direction = INCOMING, description = "The number of receivers consuming the queue in parallel, each with its own poller and event loop context. Requires a `durable-non-exclusive` queue", defaultValue = "1")
+@ConnectorAttribute(name = "batch", type = "boolean", direction = INCOMING, description = "Whether the channel emits batches of messages, with a `List` payload and a `SolaceInboundBatchMetadata` metadata", defaultValue = "false")
+@ConnectorAttribute(name = "batch.max-size", type = "int", direction = INCOMING, description = "The maximum number of messages in a batch", defaultValue = "500")
+@ConnectorAttribute(name = "batch.max-wait", type = "long", direction = INCOMING, description = "The maximum time in milliseconds to wait for a batch to fill before emitting it", defaultValue = "1000")
+@ConnectorAttribute(name = "ack.coalescing", type = "boolean", direction = INCOMING, description = "Whether acknowledgements are collected and sent to the receiver together, instead of one by one", defaultValue = "false")
+@ConnectorAttribute(name = "ack.coalescing.max-size", type = "int", direction = INCOMING, description = "The number of pending acknowledgements triggering a flush when `ack.coalescing` is enabled", defaultValue = "64")
+@ConnectorAttribute(name = "ack.coalescing.interval", type = "long", direction = INCOMING, description = "The maximum time in milliseconds an acknowledgement stays pending when `ack.coalescing` is enabled", defaultValue = "100")
+@ConnectorAttribute(name = "payload.type", type = "string", direction = INCOMING, description = "The fully qualified name of the payload type expected by the consumer, payloads are decoded directly into it. With `com.solace.messaging.receiver.InboundMessage`, the message is passed as is and its payload is not decoded. The Quarkus extension detects it from the `@Incoming` method signature")
+@ConnectorAttribute(name = "ordering.key", type = "string", direction = INCOMING, description = "Enables key-ordered dispatch: messages are sharded into lanes by key, each lane emits its next message once the previous one is acked or nacked, lanes being dispatched in parallel. The key is `application-message-id`, `partition-key` (the partitioned queue key), `property:<name>` or `topic-level:<index>`. Not applied in batch mode")
+@ConnectorAttribute(name = "ordering.lanes", type = "int", direction = INCOMING, description = "The number of lanes, and so the maximum number of messages in flight, when `ordering.key` is set", defaultValue = "16")
+@ConnectorAttribute(name = "max-unacked-messages", type = "int", direction = INCOMING, description = "The maximum number of delivered messages not acked or nacked yet, including the ones waiting for downstream demand. Once reached, the receiver is paused until a message is acked or nacked. In `pull` mode, the limit is strict, in `push` mode the few messages already on their way when the receiver is paused are still delivered. Unbounded if not set")
+@ConnectorAttribute(name = "flow-control.high-watermark", type = "int", direction = INCOMING, description = "The number of delivered messages not acked or nacked yet, including the ones waiting for downstream demand, pausing the receiver. Flow control is disabled if not set. Every message must be acked or nacked when enabled")
+@ConnectorAttribute(name = "flow-control.low-watermark", type = "int", direction = INCOMING, description = "The number of delivered messages not acked or nacked yet resuming a paused receiver, half of `flow-control.high-watermark` by default")
+@ConnectorAttribute(name = "filter.topics", type = "string", direction = INCOMING, description = "The comma separated topic patterns, with `*` and `>` wildcards, one of which the destination of a message must match to be dispatched. Filtered messages are acked without being decoded")
+@ConnectorAttribute(name = "filter.properties", type = "string", direction = INCOMING, description = "The comma separated `name=value` user properties a message must all have to be dispatched")
+@ConnectorAttribute(name = "filter.application-message-types", type = "string", direction = INCOMING, description = "The comma separated application message types, one of which a message must have to be dispatched")
+@ConnectorAttribute(name = "filter.class-of-service", type = "string", direction = INCOMING, description = "The comma separated classes of service, from 0 to 2, one of which a message must have to be dispatched")
+@ConnectorAttribute(name = "health.stall-threshold", type = "long", direction = INCOMING_AND_OUTGOING, description = "The time in milliseconds a channel with messages in flight can go without settling any of them, or without receiving any publish receipt for outgoing channels, before being reported as not ready. Set to `0` to disable stall detection", defaultValue = "60000")
+@ConnectorAttribute(name = "dedup.key", type = "string", direction = INCOMING, description = "The key detecting duplicate messages, `application-message-id` or `property:<name>`. Duplicates of an acked message are acked and skipped. Only for the `persisted` client type, duplicate detection is disabled if not set")
+@ConnectorAttribute(name = "dedup.max-size", type = "int", direction = INCOMING, description = "The maximum number of keys of acked messages kept to detect duplicates, the oldest being evicted first", defaultValue = "10000")
+@ConnectorAttribute(name = "dedup.ttl", type = "long", direction = INCOMING, description = "The duration in milliseconds the key of an acked message is kept to detect duplicates", defaultValue = "60000")
+@ConnectorAttribute(name = "failure-strategy", type = "string", direction = INCOMING, description = "The failure strategy applied to nacked messages once retries are exhausted: `nack` settles the message on the broker, `ignore` acks the message, `fail` settles the message on the broker and fails the channel, `dead-letter` publishes the message to the dead-letter topic then acks it", defaultValue = "nack")
+@ConnectorAttribute(name = "failure-strategy.default-outcome", type = "string", direction = INCOMING, description = "The outcome settling nacked messages whose failure matches no exception type: `failed` for the broker to redeliver them, or `rejected` to discard them or move them to the queue dead message queue", defaultValue = "rejected")
+@ConnectorAttribute(name = "failure-strategy.failed-exceptions", type = "string", direction = INCOMING, description = "The comma separated list of exception types settling nacked messages as `failed`, matching the failure or one of its causes")
+@ConnectorAttribute(name = "failure-strategy.rejected-exceptions", type = "string", direction = INCOMING, description = "The comma separated list of exception types settling nacked messages as `rejected`, matching the failure or one of its causes. Such messages are not retried")
+@ConnectorAttribute(name = "failure-strategy.dead-letter-topic", type = "string", direction = INCOMING, description = "The topic receiving the nacked messages with the `dead-letter` failure strategy, `dead-letter/<channel>` by default")
+@ConnectorAttribute(name = "retry.max-attempts", type = "int", direction = INCOMING, description = "The number of times a nacked message is redelivered to the application before applying the failure strategy. Retries do not involve the broker", defaultValue = "0")
+@ConnectorAttribute(name = "retry.initial-backoff", type = "long", direction = INCOMING, description = "The delay in milliseconds before the first retry of a nacked message, doubled for each following retry", defaultValue = "100")
+@ConnectorAttribute(name = "retry.max-backoff", type = "long", direction = INCOMING, description = "The maximum delay in milliseconds before retrying a nacked message", defaultValue = "10000")
+@ConnectorAttribute(name = "latency.end-to-end", type = "boolean", direction = INCOMING, description = "Whether the latencies of the acked messages are recorded from their receive timestamp and from their sender timestamp, when set", defaultValue = "false")
+@ConnectorAttribute(name = "latency.topic-patterns", type = "string", direction = INCOMING, description = "The comma separated topic patterns the end-to-end latencies are recorded by, the first matching the destination of a message. Other messages are recorded as `other`")
 @ConnectorAttribute(name = "topic", type = "string", direction = OUTGOING, description = "The topic to publish messages, by default the channel name")
+@ConnectorAttribute(name = "partition-key.extractor", type = "string", direction = OUTGOING, description = "The identifier of the `PartitionKeyExtractor` bean extracting the partition key from the payload, for messages without partition key in their metadata")
+@ConnectorAttribute(name = "sender-timestamp", type = "boolean", direction = OUTGOING, description = "Whether the messages are stamped with their sender timestamp, in the `sender-timestamp` user property, to measure end-to-end latencies", defaultValue = "false")
 @ConnectorAttribute(name = "max-inflight-messages", type = "long", direction = OUTGOING, description = "The maximum number of messages to be written to Solace broker. It limits the number of messages waiting to be written and acknowledged by the broker. You can set this attribute to `0` remove the limit", defaultValue = "1024")
 @ConnectorAttribute(name = "waitForPublishReceipt", type = "boolean", direction = OUTGOING, description = "Whether the client waits to receive the publish receipt from Solace broker before acknowledging the message", defaultValue = "true")
 @ConnectorAttribute(name = "delivery.ack.timeout", type = "int", direction = OUTGOING, description = "Delivery ack timeout")
@@ -54,21 +113,54 @@ public class SolaceConnector implements InboundConnector, OutboundConnector, Hea
 
     public static final String CONNECTOR_NAME = "quarkus-solace";
 
+    // Micrometer is an optional dependency
+    private static final boolean MICROMETER_AVAILABLE = isMicrometerAvailable();
+
     @Inject
     ExecutionHolder executionHolder;
 
     @Inject
     MessagingService solace;
 
+    @Inject
+    PayloadCodecs codecs;
+
+    @Inject
+    @Any
+    Instance<PartitionKeyExtractor> partitionKeyExtractors;
+
     Vertx vertx;
 
     List<SolaceIncomingChannel> incomingChannels = new CopyOnWriteArrayList<>();
+    Map<String, SolaceIncomingChannel> sharedReceivers = new ConcurrentHashMap<>();
     List<SolaceOutgoingChannel> outgoingChannels = new CopyOnWriteArrayList<>();
+    private volatile ChannelMeterBinder meterBinder;
 
     public void terminate(
             @Observes(notifyObserver = Reception.IF_EXISTS) @Priority(50) @BeforeDestroyed(ApplicationScoped.class) Object event) {
-        incomingChannels.forEach(SolaceIncomingChannel::close);
-        outgoingChannels.forEach(SolaceOutgoingChannel::close);
+        // Channels are drained in parallel, within the longest shutdown timeout
+        long timeout = 0;
+        for (SolaceIncomingChannel channel : incomingChannels) {
+            timeout = Math.max(timeout, channel.getShutdownTimeout());
+        }
+        for (SolaceOutgoingChannel channel : outgoingChannels) {
+            timeout = Math.max(timeout, channel.getShutdownTimeout());
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        List<CompletableFuture<Void>> closed = new ArrayList<>();
+        incomingChannels.forEach(channel -> closed.add(channel.close(deadline)));
+        outgoingChannels.forEach(channel -> closed.add(channel.close(deadline)));
+        try {
+            CompletableFuture.allOf(closed.toArray(CompletableFuture[]::new))
+                    .get(SolaceIncomingChannel.remaining(deadline), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // Already reported by the channels
+        }
+        if (meterBinder != null) {
+            meterBinder.close();
+        }
     }
 
     @PostConstruct
@@ -79,19 +171,77 @@ public class SolaceConnector implements InboundConnector, OutboundConnector, Hea
     @Override
     public Flow.Publisher<? extends Message<?>> getPublisher(Config config) {
         var ic = new SolaceConnectorIncomingConfiguration(config);
-        SolaceIncomingChannel channel = new SolaceIncomingChannel(vertx, ic, solace);
+        Optional<String> sharedReceiver = ic.getSharedReceiver();
+        if (sharedReceiver.isPresent()) {
+            SolaceIncomingChannel shared = sharedReceivers.get(sharedReceiver.get());
+            if (shared != null) {
+                Flow.Publisher<? extends Message<?>> joined = shared.join(ic, codecs);
+                shared.getMetrics().stream()
+                        .filter(metrics -> metrics.getChannel().equals(ic.getChannel()))
+                        .forEach(metrics -> bindMetrics(ic.getMetricsEnabled(), metrics));
+                return joined;
+            }
+        }
+        SolaceIncomingChannel channel = new SolaceIncomingChannel(vertx, ic, solace, codecs);
         incomingChannels.add(channel);
+        channel.getMetrics().forEach(metrics -> bindMetrics(ic.getMetricsEnabled(), metrics));
+        sharedReceiver.ifPresent(name -> sharedReceivers.put(name, channel));
         return channel.getStream();
     }
 
+    /**
+     * @throws IllegalArgumentException if the connector has no such incoming channel
+     */
+    public SolaceSubscriptions getSubscriptions(String channel) {
+        for (SolaceIncomingChannel incoming : incomingChannels) {
+            SolaceSubscriptions subscriptions = incoming.getSubscriptions(channel);
+            if (subscriptions != null) {
+                return subscriptions;
+            }
+        }
+        throw ex.illegalArgumentUnknownChannel(channel, CONNECTOR_NAME);
+    }
+
     @Override
     public Flow.Subscriber<? extends Message<?>> getSubscriber(Config config) {
         var oc = new SolaceConnectorOutgoingConfiguration(config);
-        SolaceOutgoingChannel channel = new SolaceOutgoingChannel(vertx, oc, solace);
+        PartitionKeyExtractor partitionKeyExtractor = oc.getPartitionKeyExtractor()
+                .map(identifier -> {
+                    Instance<PartitionKeyExtractor> instance = partitionKeyExtractors
+                            .select(Identifier.Literal.of(identifier));
+                    if (instance.isUnsatisfied()) {
+                        throw ex.illegalArgumentNoPartitionKeyExtractor(identifier, oc.getChannel());
+                    }
+                    return instance.get();
+                })
+                .orElse(null);
+        SolaceOutgoingChannel channel = new SolaceOutgoingChannel(vertx, oc, solace, codecs, partitionKeyExtractor);
         outgoingChannels.add(channel);
+        bindMetrics(oc.getMetricsEnabled(), channel.getMetrics());
         return channel.getSubscriber();
     }
 
+    private void bindMetrics(boolean enabled, ChannelMetrics metrics) {
+        if (!enabled || !MICROMETER_AVAILABLE) {
+            return;
+        }
+        synchronized (this) {
+            if (meterBinder == null) {
+                meterBinder = ChannelMeterBinder.create();
+            }
+        }
+        meterBinder.bind(metrics);
+    }
+
+    private static boolean isMicrometerAvailable() {
+        try {
+            Class.forName("io.micrometer.core.instrument.MeterRegistry", false, SolaceConnector.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
     @Override
     public HealthReport getStartup() {
         HealthReport.HealthReportBuilder builder = HealthReport.builder();
@@ -1,33 +1,193 @@
 package io.quarkiverse.solace;
 
+import static io.quarkiverse.solace.i18n.SolaceExceptions.ex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
 
 import org.eclipse.microprofile.reactive.messaging.Metadata;
 
-import com.solace.messaging.config.MessageAcknowledgementConfiguration;
+import com.solace.messaging.config.MessageAcknowledgementConfiguration.Outcome;
 import com.solace.messaging.receiver.AcknowledgementSupport;
 
 import io.quarkiverse.solace.i18n.SolaceLogging;
+import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.operators.multi.processors.UnicastProcessor;
+import io.vertx.mutiny.core.Context;
 
+/**
+ * Handles the messages nacked by the application.
+ * <p>
+ * Failed messages are first retried in-process, with an exponential backoff scheduled on the Vert.x timers, and
+ * redelivered to the application through {@link #redeliveries()}. Messages failing with a {@code rejected} exception
+ * are not retried. Once retries are exhausted, the failure strategy applies:
+ * <ul>
+ * <li>{@code nack} settles the message on the broker, as {@code failed} to be redelivered by the broker, or as
+ * {@code rejected} to be discarded or moved to the queue dead message queue</li>
+ * <li>{@code ignore} acks the message and continues</li>
+ * <li>{@code fail} settles the message on the broker and fails the channel</li>
+ * <li>{@code dead-letter} publishes the message to a dead-letter topic, and acks it once published</li>
+ * </ul>
+ * The outcome set with {@link SettleMetadata} bypasses both retries and strategy.
+ */
 public class SolaceFailureHandler {
 
+    public static final String NACK = "nack";
+    public static final String IGNORE = "ignore";
+    public static final String FAIL = "fail";
+    public static final String DEAD_LETTER = "dead-letter";
+
     private final String channel;
     private final AcknowledgementSupport ackSupport;
+    private final FlowController flowController;
+    private final Context context;
+    private final DeadLetterPublisher deadLetter;
+    private final ReplayCheckpoint checkpoint;
+    private final String strategy;
+    private final Outcome defaultOutcome;
+    private final List<Class<?>> failedExceptions;
+    private final List<Class<?>> rejectedExceptions;
+    private final int maxRetries;
+    private final long initialBackoff;
+    private final long maxBackoff;
+    private final UnicastProcessor<SolaceInboundMessage<?>> redeliveries = UnicastProcessor.create();
 
-    public SolaceFailureHandler(String channel, AcknowledgementSupport ackSupport) {
-        this.channel = channel;
+    public SolaceFailureHandler(SolaceConnectorIncomingConfiguration ic, AcknowledgementSupport ackSupport,
+            FlowController flowController, Context context, DeadLetterPublisher deadLetter, ReplayCheckpoint checkpoint) {
+        this.channel = ic.getChannel();
         this.ackSupport = ackSupport;
+        this.flowController = flowController;
+        this.context = context;
+        this.deadLetter = deadLetter;
+        this.checkpoint = checkpoint;
+        this.strategy = ic.getFailureStrategy();
+        if (!NACK.equals(strategy) && !IGNORE.equals(strategy) && !FAIL.equals(strategy)
+                && !DEAD_LETTER.equals(strategy)) {
+            throw ex.illegalArgumentFailureStrategy(strategy, channel);
+        }
+        this.defaultOutcome = "failed".equals(ic.getFailureStrategyDefaultOutcome()) ? Outcome.FAILED : Outcome.REJECTED;
+        this.failedExceptions = loadExceptions(ic.getFailureStrategyFailedExceptions());
+        this.rejectedExceptions = loadExceptions(ic.getFailureStrategyRejectedExceptions());
+        this.maxRetries = ic.getRetryMaxAttempts();
+        this.initialBackoff = ic.getRetryInitialBackoff();
+        this.maxBackoff = ic.getRetryMaxBackoff();
+    }
+
+    private List<Class<?>> loadExceptions(Optional<String> classNames) {
+        List<Class<?>> exceptions = new ArrayList<>();
+        if (classNames.isPresent()) {
+            for (String className : classNames.get().split(",")) {
+                try {
+                    exceptions.add(Class.forName(className.trim(), false, Thread.currentThread().getContextClassLoader()));
+                } catch (ClassNotFoundException e) {
+                    throw ex.illegalArgumentUnknownExceptionClass(className.trim(), channel, e);
+                }
+            }
+        }
+        return exceptions;
+    }
+
+    /**
+     * @return the messages to redeliver to the application, failing if the channel has to fail
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public Multi<SolaceInboundMessage<Object>> redeliveries() {
+        return (Multi) redeliveries;
     }
 
     public CompletionStage<Void> handle(SolaceInboundMessage<?> msg, Throwable reason, Metadata metadata) {
-        final MessageAcknowledgementConfiguration.Outcome outcome = metadata.get(SettleMetadata.class)
-                .map(SettleMetadata::getOutcome)
-                .orElseGet(() -> MessageAcknowledgementConfiguration.Outcome.REJECTED /* TODO get outcome from reason */);
-        SolaceLogging.log.messageNacked(channel, outcome.toString().toLowerCase());
+        Optional<Outcome> settleOutcome = metadata.get(SettleMetadata.class).map(SettleMetadata::getOutcome);
+        if (settleOutcome.isPresent()) {
+            SolaceLogging.log.messageNacked(channel, settleOutcome.get().toString().toLowerCase());
+            return msg.nacked(settle(msg, settleOutcome.get()));
+        }
+        Outcome mapped = outcomeOf(reason);
+        if (mapped != Outcome.REJECTED && msg.getRetries() < maxRetries) {
+            int retry = msg.incrementRetries();
+            long delay = backoff(retry);
+            SolaceLogging.log.messageRetried(channel, delay, retry, maxRetries);
+            // The message stays unsettled while waiting, no thread is held
+            context.owner().setTimer(delay, id -> context.runOnContext(() -> {
+                msg.redispatched();
+                redeliveries.onNext(msg);
+            }));
+            return CompletableFuture.completedFuture(null);
+        }
+        Outcome outcome = mapped == null ? defaultOutcome : mapped;
+        switch (strategy) {
+            case IGNORE:
+                SolaceLogging.log.messageIgnored(channel, reason);
+                return msg.nacked(settle(msg, Outcome.ACCEPTED));
+            case DEAD_LETTER:
+                SolaceLogging.log.messageDeadLettered(channel, deadLetter.getTopic(), reason);
+                return msg.nacked(deadLetter.publish(msg.getMessage(), reason)
+                        .handle((x, t) -> {
+                            if (t == null) {
+                                return settle(msg, Outcome.ACCEPTED);
+                            }
+                            SolaceLogging.log.deadLetterFailed(channel, deadLetter.getTopic(), t);
+                            return settle(msg, outcome);
+                        })
+                        .thenCompose(Function.identity()));
+            case FAIL:
+                SolaceLogging.log.messageNacked(channel, outcome.toString().toLowerCase());
+                return msg.nacked(settle(msg, outcome)
+                        .whenComplete((x, t) -> context.runOnContext(() -> redeliveries.onError(reason))));
+            default:
+                SolaceLogging.log.messageNacked(channel, outcome.toString().toLowerCase());
+                return msg.nacked(settle(msg, outcome));
+        }
+    }
+
+    /**
+     * @return the outcome of the first exception type matching the reason or one of its causes, {@code null} if none
+     */
+    private Outcome outcomeOf(Throwable reason) {
+        for (Throwable t = reason; t != null; t = t.getCause() == t ? null : t.getCause()) {
+            for (Class<?> rejected : rejectedExceptions) {
+                if (rejected.isInstance(t)) {
+                    return Outcome.REJECTED;
+                }
+            }
+            for (Class<?> failed : failedExceptions) {
+                if (failed.isInstance(t)) {
+                    return Outcome.FAILED;
+                }
+            }
+        }
+        return null;
+    }
+
+    private long backoff(int retry) {
+        long delay = initialBackoff << Math.min(retry - 1, 30);
+        return delay < 0 || delay > maxBackoff ? maxBackoff : Math.max(delay, 1);
+    }
+
+    private CompletionStage<Void> settle(SolaceInboundMessage<?> msg, Outcome outcome) {
         return Uni.createFrom().voidItem()
-                .invoke(() -> ackSupport.settle(msg.getMessage(), outcome))
+                .invoke(() -> {
+                    try {
+                        ackSupport.settle(msg.getMessage(), outcome);
+                        if (checkpoint != null) {
+                            // Failed messages are redelivered, the checkpoint waits for them
+                            checkpoint.settled(msg.getMessage(), outcome != Outcome.FAILED);
+                        }
+                    } finally {
+                        if (flowController != null) {
+                            flowController.settled();
+                        }
+                    }
+                })
                 .runSubscriptionOn(msg::runOnMessageContext)
                 .subscribeAsCompletionStage();
     }
+
+    public void close() {
+        context.runOnContext(redeliveries::onComplete);
+    }
 }
@@ -0,0 +1,77 @@
+package io.quarkiverse.solace;
+
+import static io.smallrye.reactive.messaging.providers.locals.ContextAwareMessage.captureContextMetadata;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import org.eclipse.microprofile.reactive.messaging.Metadata;
+
+import io.smallrye.reactive.messaging.providers.MetadataInjectableMessage;
+import io.smallrye.reactive.messaging.providers.locals.ContextAwareMessage;
+
+public class SolaceInboundBatchMessage<T> implements ContextAwareMessage<List<T>>, MetadataInjectableMessage<List<T>> {
+
+    private final List<SolaceInboundMessage<T>> messages;
+    private volatile List<T> payload;
+
+    private Metadata metadata;
+
+    public SolaceInboundBatchMessage(List<SolaceInboundMessage<T>> messages) {
+        this.messages = messages;
+        List<SolaceInboundMetadata> batchMetadata = new ArrayList<>(messages.size());
+        for (SolaceInboundMessage<T> message : messages) {
+            batchMetadata.add(new SolaceInboundMetadata(message.getMessage()));
+        }
+        this.metadata = captureContextMetadata(new SolaceInboundBatchMetadata(Collections.unmodifiableList(batchMetadata)));
+    }
+
+    public List<SolaceInboundMessage<T>> getMessages() {
+        return messages;
+    }
+
+    @Override
+    public List<T> getPayload() {
+        List<T> converted = this.payload;
+        if (converted == null) {
+            List<T> payloads = new ArrayList<>(messages.size());
+            for (SolaceInboundMessage<T> message : messages) {
+                payloads.add(message.getPayload());
+            }
+            converted = Collections.unmodifiableList(payloads);
+            this.payload = converted;
+        }
+        return converted;
+    }
+
+    @Override
+    public Metadata getMetadata() {
+        return metadata;
+    }
+
+    @Override
+    public CompletionStage<Void> ack() {
+        CompletableFuture<?>[] acks = new CompletableFuture[messages.size()];
+        for (int i = 0; i < acks.length; i++) {
+            acks[i] = messages.get(i).ack().toCompletableFuture();
+        }
+        return CompletableFuture.allOf(acks);
+    }
+
+    @Override
+    public CompletionStage<Void> nack(Throwable reason, Metadata nackMetadata) {
+        CompletableFuture<?>[] nacks = new CompletableFuture[messages.size()];
+        for (int i = 0; i < nacks.length; i++) {
+            nacks[i] = messages.get(i).nack(reason, nackMetadata).toCompletableFuture();
+        }
+        return CompletableFuture.allOf(nacks);
+    }
+
+    @Override
+    public void injectMetadata(Object metadataObject) {
+        this.metadata = this.metadata.with(metadataObject);
+    }
+}
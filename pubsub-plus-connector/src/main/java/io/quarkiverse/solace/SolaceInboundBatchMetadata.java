@@ -0,0 +1,24 @@
+package io.quarkiverse.solace;
+
+import java.util.List;
+
+public class SolaceInboundBatchMetadata {
+
+    private final List<SolaceInboundMetadata> metadata;
+
+    public SolaceInboundBatchMetadata(List<SolaceInboundMetadata> metadata) {
+        this.metadata = metadata;
+    }
+
+    public List<SolaceInboundMetadata> getMetadata() {
+        return metadata;
+    }
+
+    public SolaceInboundMetadata getLastMetadata() {
+        return metadata.get(metadata.size() - 1);
+    }
+
+    public int size() {
+        return metadata.size();
+    }
+}
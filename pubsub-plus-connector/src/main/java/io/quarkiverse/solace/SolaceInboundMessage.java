@@ -2,71 +2,90 @@ package io.quarkiverse.solace;
 
 import static io.smallrye.reactive.messaging.providers.locals.ContextAwareMessage.captureContextMetadata;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 
 import org.eclipse.microprofile.reactive.messaging.Metadata;
 
 import com.solace.messaging.receiver.InboundMessage;
 
-import io.netty.handler.codec.http.HttpHeaderValues;
-import io.quarkiverse.solace.i18n.SolaceLogging;
+import io.quarkiverse.solace.codecs.InboundPayloadDecoder;
 import io.smallrye.reactive.messaging.providers.MetadataInjectableMessage;
 import io.smallrye.reactive.messaging.providers.locals.ContextAwareMessage;
-import io.vertx.core.buffer.Buffer;
 
 public class SolaceInboundMessage<T> implements ContextAwareMessage<T>, MetadataInjectableMessage<T> {
 
+    private static final Object NOT_CONVERTED = new Object();
+
     private final InboundMessage msg;
+    private final InboundPayloadDecoder decoder;
     private final SolaceAckHandler ackHandler;
     private final SolaceFailureHandler nackHandler;
-    private final T payload;
+    private final SharedSettlement shared;
+    private final ChannelMetrics metrics;
+    // Reset on each redelivery to the application, to measure the processing of the last attempt
+    private long dispatchedAt;
+    private volatile Object payload = NOT_CONVERTED;
 
     private Metadata metadata;
+    private volatile Runnable onSettled;
+    private volatile int retries;
+
+    public SolaceInboundMessage(InboundMessage message, InboundPayloadDecoder decoder, SolaceAckHandler ackHandler,
+            SolaceFailureHandler nackHandler) {
+        this(message, decoder, ackHandler, nackHandler, null);
+    }
 
-    public SolaceInboundMessage(InboundMessage message, SolaceAckHandler ackHandler, SolaceFailureHandler nackHandler) {
+    /**
+     * @param metrics the metrics recording the settlement of the message, {@code null} if not recorded
+     */
+    public SolaceInboundMessage(InboundMessage message, InboundPayloadDecoder decoder, SolaceAckHandler ackHandler,
+            SolaceFailureHandler nackHandler, ChannelMetrics metrics) {
         this.msg = message;
-        this.payload = (T) convertPayload();
+        this.decoder = decoder;
         this.ackHandler = ackHandler;
         this.nackHandler = nackHandler;
+        this.shared = null;
+        this.metrics = metrics;
+        this.dispatchedAt = metrics == null ? 0 : System.nanoTime();
         this.metadata = captureContextMetadata(new SolaceInboundMetadata(message));
     }
 
+    /**
+     * Copies a message received by a shared receiver, to route it to one of the channels sharing it.
+     *
+     * @param shared the settlement shared with the copies routed to the other channels, {@code null} if routed to
+     *        a single channel
+     */
+    SolaceInboundMessage(SolaceInboundMessage<?> source, InboundPayloadDecoder decoder, SharedSettlement shared,
+            ChannelMetrics metrics) {
+        this.msg = source.msg;
+        this.decoder = decoder;
+        this.ackHandler = source.ackHandler;
+        this.nackHandler = source.nackHandler;
+        this.shared = shared;
+        this.metrics = metrics;
+        this.dispatchedAt = metrics == null ? 0 : System.nanoTime();
+        this.metadata = captureContextMetadata(new SolaceInboundMetadata(msg));
+    }
+
     public InboundMessage getMessage() {
         return msg;
     }
 
+    /**
+     * The payload is decoded on first access and memoized. Reactive Messaging reads it before applying the message
+     * converters, so every consumer decodes it, unless the channel {@code payload.type} is the Solace
+     * {@link InboundMessage}, the message being then returned as is.
+     */
     @Override
     public T getPayload() {
-        return this.payload;
-    }
-
-    private Object convertPayload() {
-        // Neither of these are guaranteed to be non-null
-        final String contentType = msg.getRestInteroperabilitySupport().getHTTPContentType();
-        final String contentEncoding = msg.getRestInteroperabilitySupport().getHTTPContentEncoding();
-        final Buffer body = Buffer.buffer(msg.getPayloadAsBytes());
-
-        // If there is a content encoding specified, we don't try to unwrap
-        if (contentEncoding == null || contentEncoding.isBlank()) {
-            try {
-                // Do our best with text and json
-                if (HttpHeaderValues.APPLICATION_JSON.toString().equalsIgnoreCase(contentType)) {
-                    // This could be  JsonArray, JsonObject, String etc. depending on buffer contents
-                    return body.toJson();
-                } else if (HttpHeaderValues.TEXT_PLAIN.toString().equalsIgnoreCase(contentType)) {
-                    return body.toString();
-                }
-            } catch (Throwable t) {
-                SolaceLogging.log.typeConversionFallback();
-            }
-            // Otherwise fall back to raw byte array
-        } else {
-            // Just silence the warning if we have a binary message
-            if (!HttpHeaderValues.APPLICATION_OCTET_STREAM.toString().equalsIgnoreCase(contentType)) {
-                SolaceLogging.log.typeConversionFallback();
-            }
+        Object converted = this.payload;
+        if (converted == NOT_CONVERTED) {
+            converted = decoder.decode(msg);
+            this.payload = converted;
         }
-        return body.getBytes();
+        return (T) converted;
     }
 
     @Override
@@ -74,16 +93,79 @@ public class SolaceInboundMessage<T> implements ContextAwareMessage<T>, Metadata
         return metadata;
     }
 
+    /**
+     * Registers an action run once the message has been acked or nacked, without waiting for the broker.
+     */
+    void whenSettled(Runnable action) {
+        this.onSettled = action;
+    }
+
     @Override
     public CompletionStage<Void> ack() {
-        return ackHandler.handle(this);
+        CompletionStage<Void> acked;
+        if (ackHandler == null || shared != null && !shared.acked()) {
+            // Direct messages have no handlers, there is nothing to settle
+            acked = CompletableFuture.completedFuture(null);
+        } else {
+            acked = ackHandler.handle(this);
+        }
+        return settled(metrics == null ? acked : metrics.acked(msg, dispatchedAt, acked));
     }
 
     @Override
     public CompletionStage<Void> nack(Throwable reason, Metadata nackMetadata) {
+        if (nackHandler == null || shared != null && !shared.nacked()) {
+            return nacked(CompletableFuture.completedFuture(null));
+        }
+        // The failure handler signals the settlement itself, as a nacked message may be retried instead
         return nackHandler.handle(this, reason, nackMetadata);
     }
 
+    /**
+     * Records the nack of the message, once settled after its last failure rather than on each retry, and runs the
+     * action registered with {@link #whenSettled(Runnable)}.
+     */
+    CompletionStage<Void> nacked(CompletionStage<Void> settlement) {
+        if (metrics != null) {
+            metrics.nacked(dispatchedAt);
+        }
+        return settled(settlement);
+    }
+
+    /**
+     * Called before redelivering the message to the application after a failure.
+     */
+    void redispatched() {
+        if (metrics != null) {
+            dispatchedAt = System.nanoTime();
+        }
+    }
+
+    /**
+     * @return the number of times the message has been redelivered to the application after a failure
+     */
+    int getRetries() {
+        return retries;
+    }
+
+    int incrementRetries() {
+        return ++retries;
+    }
+
+    /**
+     * Runs the action registered with {@link #whenSettled(Runnable)} as the given settlement is requested.
+     * The action does not wait for the settlement to complete, coalesced acks completing up to the coalescing
+     * interval later.
+     */
+    CompletionStage<Void> settled(CompletionStage<Void> settlement) {
+        Runnable action = this.onSettled;
+        if (action != null) {
+            this.onSettled = null;
+            action.run();
+        }
+        return settlement;
+    }
+
     @Override
     public void injectMetadata(Object metadataObject) {
         this.metadata = this.metadata.with(metadataObject);
@@ -49,8 +49,11 @@ public class SolaceInboundMetadata {
         return msg.getClassOfService();
     }
 
+    /**
+     * @return the sender timestamp set by the API, or else by an outgoing channel stamping sender timestamps
+     */
     public Long getSenderTimestamp() {
-        return msg.getSenderTimestamp();
+        return EndToEndLatency.senderTimestamp(msg);
     }
 
     public String getSenderId() {
@@ -89,6 +92,13 @@ public class SolaceInboundMetadata {
         return msg.getApplicationMessageId();
     }
 
+    /**
+     * @return the key of the partition of partitioned queues, {@code null} if not set
+     */
+    public String getPartitionKey() {
+        return msg.getProperty(SolaceOutboundMetadata.PARTITION_KEY_PROPERTY);
+    }
+
     public String getApplicationMessageType() {
         return msg.getApplicationMessageType();
     }
@@ -1,27 +1,51 @@
 package io.quarkiverse.solace;
 
+import static io.quarkiverse.solace.i18n.SolaceExceptions.ex;
+
+import java.time.Duration;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Flow;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import org.eclipse.microprofile.reactive.messaging.Message;
 
+import com.solace.messaging.DirectMessageReceiverBuilder;
 import com.solace.messaging.MessagingService;
 import com.solace.messaging.PersistentMessageReceiverBuilder;
+import com.solace.messaging.config.MessageAcknowledgementConfiguration.Outcome;
 import com.solace.messaging.config.MissingResourcesCreationConfiguration.MissingResourcesCreationStrategy;
 import com.solace.messaging.config.ReceiverActivationPassivationConfiguration;
 import com.solace.messaging.config.ReplayStrategy;
 import com.solace.messaging.receiver.DirectMessageReceiver;
 import com.solace.messaging.receiver.InboundMessage;
+import com.solace.messaging.receiver.MessageReceiver;
 import com.solace.messaging.receiver.PersistentMessageReceiver;
 import com.solace.messaging.resources.Queue;
+import com.solace.messaging.resources.ShareName;
 import com.solace.messaging.resources.TopicSubscription;
 
+import io.quarkiverse.solace.codecs.InboundPayloadDecoder;
+import io.quarkiverse.solace.codecs.PayloadCodecs;
+import io.quarkiverse.solace.i18n.SolaceLogging;
 import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.operators.multi.processors.UnicastProcessor;
 import io.smallrye.reactive.messaging.health.HealthReport;
 import io.vertx.core.impl.VertxInternal;
 import io.vertx.mutiny.core.Context;
@@ -29,66 +53,419 @@ import io.vertx.mutiny.core.Vertx;
 
 public class SolaceIncomingChannel implements ReceiverActivationPassivationConfiguration.ReceiverStateChangeListener {
 
+    private static final int MAX_UNROUTED_TOPICS = 1000;
+
     private final String channel;
-    private final Context context;
-    private final SolaceAckHandler ackHandler;
-    private final SolaceFailureHandler failureHandler;
     private final AtomicBoolean closed = new AtomicBoolean(false);
-    private final PersistentMessageReceiver receiver;
+    private final List<MessageReceiver> receivers = new ArrayList<>();
+    private final List<ExecutorService> pollerThreads = new ArrayList<>();
+    private final List<SolaceAckHandler> ackHandlers = new ArrayList<>();
+    private final List<FlowController> flowControllers = new ArrayList<>();
+    private final List<ReceiverPublisher> receiverPublishers = new ArrayList<>();
+    private final List<SolaceFailureHandler> failureHandlers = new ArrayList<>();
     private final Flow.Publisher<? extends Message<?>> stream;
-    private final ExecutorService pollerThread;
+    private final InboundPayloadDecoder decoder;
+    private final DuplicateFilter duplicateFilter;
+    private final MessageFilter filter;
+    private final DeadLetterPublisher deadLetter;
+    private final ReplayCheckpoint checkpoint;
+    private final long shutdownTimeout;
+    private final ActivationTracker activation;
+    private final List<ChannelMetrics> metrics = new CopyOnWriteArrayList<>();
+    private final ChannelMetrics channelMetrics;
+    private final ChannelHealth health;
+    private final String sharedReceiver;
+    private final TopicRouter<Route> router;
+    private final List<Route> routes = new CopyOnWriteArrayList<>();
+    private final List<SolaceSubscriptions> channelSubscriptions = new CopyOnWriteArrayList<>();
+    private final SubscriptionBatcher subscriptionBatcher;
+    private final AtomicBoolean routing = new AtomicBoolean(false);
+    // Topics without route already warned about, bounded as topics come from the messages
+    private final Set<String> unroutedTopics = ConcurrentHashMap.newKeySet();
+    private Multi<Message<?>> source;
+    private RouteSubscriber routeSubscriber;
+    private CompletableFuture<Void> closing;
+    private volatile long abandoned;
 
-    public SolaceIncomingChannel(Vertx vertx, SolaceConnectorIncomingConfiguration ic, MessagingService solace) {
+    public SolaceIncomingChannel(Vertx vertx, SolaceConnectorIncomingConfiguration ic, MessagingService solace,
+            PayloadCodecs codecs) {
         this.channel = ic.getChannel();
-        this.context = Context.newInstance(((VertxInternal) vertx.getDelegate()).createEventLoopContext());
-        DirectMessageReceiver r = solace.createDirectMessageReceiverBuilder().build();
-        PersistentMessageReceiverBuilder builder = solace.createPersistentMessageReceiverBuilder()
-                .withMessageClientAcknowledgement()
-                .withActivationPassivationSupport(this);
-
-        ic.getPersistentSelectorQuery().ifPresent(builder::withMessageSelector);
-        ic.getPersistentReplayStrategy().ifPresent(s -> {
-            switch (s) {
-                case "all-messages":
-                    builder.withMessageReplay(ReplayStrategy.allMessages());
+        this.shutdownTimeout = ic.getClientShutdownTimeout();
+        this.activation = new ActivationTracker(channel);
+        this.sharedReceiver = ic.getSharedReceiver().orElse(null);
+        this.router = sharedReceiver == null ? null : new TopicRouter<>();
+        if (sharedReceiver != null) {
+            checkShareable(ic);
+        }
+        this.decoder = codecs.inbound(getPayloadType(ic), ic.getContentType().orElse(null));
+        // Resolved upfront, so that a standby receiver taking over dispatches its first message without delay
+        this.decoder.warmUp();
+        // Shared by the concurrent receivers, duplicates may be delivered to any of them
+        this.duplicateFilter = ic.getDedupKey()
+                .map(key -> new DuplicateFilter(key, ic.getDedupMaxSize(), ic.getDedupTtl()))
+                .orElse(null);
+        this.filter = MessageFilter.of(ic);
+        this.channelMetrics = ChannelMetrics.incoming(channel, this::getUnsettled,
+                filter == null ? null : filter::getFiltered, EndToEndLatency.of(ic), activation);
+        metrics.add(channelMetrics);
+        this.health = new ChannelHealth(channel, solace, ic.getHealthEnabled(), ic.getHealthStallThreshold(),
+                this::getUnsettled, this::getSettled);
+        this.deadLetter = SolaceFailureHandler.DEAD_LETTER.equals(ic.getFailureStrategy())
+                ? new DeadLetterPublisher(solace, ic.getFailureStrategyDeadLetterTopic().orElse("dead-letter/" + channel))
+                : null;
+        this.checkpoint = newCheckpoint(ic);
+        List<String> subscriptions = Arrays.asList(ic.getSubscriptions().orElse(this.channel).split(","));
+        TopicSubscription[] topicSubscriptions = subscriptions.stream()
+                .map(TopicSubscription::of)
+                .toArray(TopicSubscription[]::new);
+        boolean lazyStart = ic.getClientLazyStart();
+        int concurrency = ic.getConcurrency();
+        List<Multi<Message<?>>> streams = new ArrayList<>(concurrency);
+        if ("direct".equals(ic.getClientType())) {
+            DirectMessageReceiverBuilder builder = solace.createDirectMessageReceiverBuilder()
+                    .withSubscriptions(topicSubscriptions);
+            switch (ic.getDirectBackPressureStrategy()) {
+                case "drop-oldest":
+                    builder.onBackPressureDropOldest(ic.getDirectBackPressureBufferCapacity());
                     break;
-                case "time-based":
-                    builder.withMessageReplay(getTimeBasedReplayStrategy(ic));
+                case "drop-latest":
+                    builder.onBackPressureDropLatest(ic.getDirectBackPressureBufferCapacity());
                     break;
-                case "replication-group-message-id":
-                    builder.withMessageReplay(getGroupMessageIdReplayStrategy(ic));
+                default:
+                    builder.onBackPressureElastic();
                     break;
             }
-        });
-        String subscriptions = ic.getSubscriptions().orElse(this.channel);
-        builder.withSubscriptions(Arrays.stream(subscriptions.split(","))
-                .map(TopicSubscription::of)
-                .toArray(TopicSubscription[]::new));
-        switch (ic.getPersistentMissingResourceCreationStrategy()) {
-            case "create-on-start":
-                builder.withMissingResourcesCreationStrategy(MissingResourcesCreationStrategy.CREATE_ON_START);
-                break;
-            case "do-not-create":
-                builder.withMissingResourcesCreationStrategy(MissingResourcesCreationStrategy.DO_NOT_CREATE);
-                break;
+            for (int i = 0; i < concurrency; i++) {
+                // Concurrent receivers share the subscriptions, otherwise each one would get every message
+                DirectMessageReceiver receiver = concurrency == 1 ? builder.build()
+                        : builder.build(ShareName.of(this.channel));
+                receiver.setTerminationNotificationListener(health);
+                receivers.add(receiver);
+                streams.add(consume(vertx, ic, receiver, receiver::receiveAsync, receiver::receiveMessage, null,
+                        lazyStart));
+            }
+        } else {
+            PersistentMessageReceiverBuilder builder = solace.createPersistentMessageReceiverBuilder()
+                    .withMessageClientAcknowledgement()
+                    .withRequiredMessageClientOutcomeOperationSupport(Outcome.FAILED, Outcome.REJECTED)
+                    .withActivationPassivationSupport(this);
+
+            ic.getPersistentSelectorQuery().ifPresent(builder::withMessageSelector);
+            ic.getPersistentReplayStrategy().ifPresent(s -> {
+                switch (s) {
+                    case "all-messages":
+                        builder.withMessageReplay(ReplayStrategy.allMessages());
+                        break;
+                    case "time-based":
+                        builder.withMessageReplay(getTimeBasedReplayStrategy(ic));
+                        break;
+                    case "replication-group-message-id":
+                        builder.withMessageReplay(getGroupMessageIdReplayStrategy(ic));
+                        break;
+                    case "checkpoint":
+                        builder.withMessageReplay(getCheckpointReplayStrategy(ic, checkpoint));
+                        break;
+                }
+            });
+            builder.withSubscriptions(topicSubscriptions);
+            switch (ic.getPersistentMissingResourceCreationStrategy()) {
+                case "create-on-start":
+                    builder.withMissingResourcesCreationStrategy(MissingResourcesCreationStrategy.CREATE_ON_START);
+                    break;
+                case "do-not-create":
+                    builder.withMissingResourcesCreationStrategy(MissingResourcesCreationStrategy.DO_NOT_CREATE);
+                    break;
+            }
+
+            // An exclusive queue delivers to a single receiver, a non-durable queue is created for each receiver
+            if (concurrency > 1 && !"durable-non-exclusive".equals(ic.getPersistentQueueType())) {
+                throw ex.illegalArgumentConcurrentQueueType(channel, concurrency, ic.getPersistentQueueType());
+            }
+            Queue queue = getQueue(ic);
+            for (int i = 0; i < concurrency; i++) {
+                PersistentMessageReceiver receiver = builder.build(queue);
+                receiver.setTerminationNotificationListener(health);
+                receivers.add(receiver);
+                streams.add(consume(vertx, ic, receiver, receiver::receiveAsync, receiver::receiveMessage, receiver,
+                        lazyStart));
+            }
+        }
+        // Queue subscriptions are changed through any of the receivers, direct subscriptions on each of them
+        this.subscriptionBatcher = new SubscriptionBatcher(channel,
+                Context.newInstance(((VertxInternal) vertx.getDelegate()).createEventLoopContext()),
+                "direct".equals(ic.getClientType()) ? receivers : receivers.subList(0, 1));
+        Multi<Message<?>> merged = (concurrency == 1 ? streams.get(0) : Multi.createBy().merging().streams(streams))
+                .onFailure().invoke(health::failed);
+        if (sharedReceiver != null) {
+            Route route = new Route(decoder, channelMetrics);
+            subscriptions.forEach(subscription -> router.add(subscription, route));
+            this.source = merged;
+            this.routeSubscriber = new RouteSubscriber(ic.getConsumerBufferCapacity());
+            this.stream = routed(route);
+            addSubscriptions(channel, route).init(subscriptions);
+        } else {
+            this.stream = merged;
+            addSubscriptions(channel, null).init(subscriptions);
+        }
+        if (!lazyStart) {
+            receivers.forEach(MessageReceiver::start);
+            health.started();
         }
+    }
 
-        this.receiver = builder.build(getQueue(ic));
-        boolean lazyStart = ic.getClientLazyStart();
-        this.ackHandler = new SolaceAckHandler(receiver);
-        this.failureHandler = new SolaceFailureHandler(channel, receiver);
-        // TODO Here use a subscription receiver.receiveAsync with an internal queue
-        this.pollerThread = Executors.newSingleThreadExecutor();
-        this.stream = Multi.createBy().repeating()
-                .uni(() -> Uni.createFrom().item(receiver::receiveMessage)
-                        .runSubscriptionOn(pollerThread))
-                .until(__ -> closed.get())
-                .emitOn(context::runOnContext)
-                .map(consumed -> new SolaceInboundMessage<>(consumed, ackHandler, failureHandler))
-                .plug(m -> lazyStart ? m.onSubscription().call(() -> Uni.createFrom().completionStage(receiver.startAsync()))
+    /**
+     * @param persistent the persistent receiver settling the messages, {@code null} for a direct receiver
+     */
+    private Multi<Message<?>> consume(Vertx vertx, SolaceConnectorIncomingConfiguration ic, MessageReceiver receiver,
+            Consumer<MessageReceiver.MessageHandler> receiveAsync, Supplier<InboundMessage> receiveMessage,
+            PersistentMessageReceiver persistent, boolean lazyStart) {
+        // Each receiver dispatches on its own event loop context
+        Context context = Context.newInstance(((VertxInternal) vertx.getDelegate()).createEventLoopContext());
+        FlowController flowController = null;
+        SolaceAckHandler ackHandler = null;
+        SolaceFailureHandler failureHandler = null;
+        if (persistent != null) {
+            flowController = newFlowController(ic, persistent);
+            flowControllers.add(flowController);
+            ackHandler = ic.getAckCoalescing()
+                    ? new SolaceAckHandler(persistent, flowController, duplicateFilter, checkpoint, context,
+                            ic.getAckCoalescingMaxSize(), ic.getAckCoalescingInterval())
+                    : new SolaceAckHandler(persistent, flowController, duplicateFilter, checkpoint);
+            ackHandlers.add(ackHandler);
+            failureHandler = new SolaceFailureHandler(ic, persistent, flowController, context, deadLetter, checkpoint);
+            failureHandlers.add(failureHandler);
+        }
+        return consume(ic, context, receiver, receiveAsync, receiveMessage, flowController, ackHandler, failureHandler,
+                lazyStart);
+    }
+
+    private Multi<Message<?>> consume(SolaceConnectorIncomingConfiguration ic, Context context, MessageReceiver receiver,
+            Consumer<MessageReceiver.MessageHandler> receiveAsync, Supplier<InboundMessage> receiveMessage,
+            FlowController flowController, SolaceAckHandler ackHandler, SolaceFailureHandler failureHandler,
+            boolean lazyStart) {
+        Multi<InboundMessage> consumed;
+        if ("push".equals(ic.getConsumerMode())) {
+            // The dispatch thread is shared by the receivers of the service, the receiver is paused instead of blocking it
+            ReceiverPublisher publisher = new ReceiverPublisher(channel, context,
+                    handler -> receiveAsync.accept(flowController == null ? handler : msg -> {
+                        flowController.received();
+                        handler.onMessage(msg);
+                    }),
+                    ic.getConsumerBufferCapacity(), getOverflow(ic, flowController), flowController);
+            receiverPublishers.add(publisher);
+            consumed = Multi.createFrom().publisher(publisher);
+        } else {
+            ExecutorService pollerThread = newPollerThread(channel, ic.getConsumerPollerVirtualThread());
+            pollerThreads.add(pollerThread);
+            consumed = Multi.createBy().repeating()
+                    .uni(() -> Uni.createFrom().item(() -> {
+                        if (flowController == null) {
+                            return receiveMessage.get();
+                        }
+                        flowController.acquire();
+                        InboundMessage msg = receiveMessage.get();
+                        if (msg != null) {
+                            flowController.received();
+                        } else {
+                            flowController.release();
+                        }
+                        return msg;
+                    }).runSubscriptionOn(pollerThread))
+                    .until(__ -> closed.get())
+                    .emitOn(context::runOnContext);
+        }
+        consumed = consumed.invoke(msg -> {
+            activation.onMessage();
+            channelMetrics.received();
+            if (checkpoint != null && flowController != null) {
+                checkpoint.received(msg);
+            }
+        });
+        if (filter != null) {
+            // Checked before the message is wrapped and its payload decoded
+            consumed = consumed.filter(msg -> {
+                if (filter.accept(msg)) {
+                    return true;
+                }
+                if (ackHandler != null) {
+                    ackHandler.handle(msg);
+                }
+                return false;
+            });
+        }
+        Multi<SolaceInboundMessage<Object>> messages = consumed
+                .map(msg -> new SolaceInboundMessage<>(msg, decoder, ackHandler, failureHandler, channelMetrics));
+        if (duplicateFilter != null && ackHandler != null) {
+            // Checked before the payload is decoded
+            messages = messages.filter(msg -> {
+                if (duplicateFilter.isDuplicate(msg.getMessage())) {
+                    SolaceLogging.log.duplicateMessageSkipped(channel, msg.getMessage().isRedelivered());
+                    msg.ack();
+                    return false;
+                }
+                return true;
+            });
+        }
+        // Ordered messages merge the retried ones after the lanes, batches ignore the ordering key
+        if (failureHandler != null && (ic.getBatch() || !ic.getOrderingKey().isPresent())) {
+            messages = Multi.createBy().merging().streams(messages, failureHandler.redeliveries());
+        }
+        Multi<Message<?>> stream;
+        if (ic.getBatch()) {
+            stream = messages
+                    .group().intoLists().of(ic.getBatchMaxSize(), Duration.ofMillis(ic.getBatchMaxWait()))
+                    // Batches closed by the timeout are emitted from a timer thread
+                    .emitOn(context::runOnContext)
+                    .map(SolaceInboundBatchMessage::new);
+        } else if (ic.getOrderingKey().isPresent()) {
+            OrderingKey key = OrderingKey.of(ic.getOrderingKey().get());
+            int lanes = ic.getOrderingLanes();
+            stream = messages
+                    .group().by(msg -> OrderingKey.lane(key.hash(msg.getMessage()), lanes))
+                    // Lanes are dispatched concurrently, each lane emits its next message once the previous one is acked
+                    // or nacked, without waiting for the broker
+                    .onItem().transformToMulti(lane -> lane.onItem()
+                            .transformToMultiAndConcatenate(SolaceIncomingChannel::untilSettled))
+                    .merge(lanes)
+                    // Lanes resume from the thread settling the previous message
+                    .emitOn(context::runOnContext);
+            if (failureHandler != null) {
+                // Retried messages bypass the lanes, their lane waits until they are settled
+                stream = Multi.createBy().merging().streams(stream,
+                        failureHandler.redeliveries().map(Function.identity()));
+            }
+        } else {
+            stream = messages.map(Function.identity());
+        }
+        return stream
+                .plug(m -> lazyStart ? m.onSubscription().call(() -> Uni.createFrom().completionStage(receiver.startAsync())
+                        .invoke(() -> {
+                            health.started();
+                            // Applies the subscription changes requested before the start
+                            subscriptionBatcher.flush();
+                        }))
                         : m);
-        if (!lazyStart) {
-            receiver.start();
+    }
+
+    private void checkShareable(SolaceConnectorIncomingConfiguration ic) {
+        if (ic.getBatch()) {
+            throw ex.illegalArgumentSharedReceiver(ic.getChannel(), sharedReceiver, "batch");
+        }
+        if (ic.getOrderingKey().isPresent()) {
+            throw ex.illegalArgumentSharedReceiver(ic.getChannel(), sharedReceiver, "ordering-key");
+        }
+        if (ic.getRetryMaxAttempts() > 0) {
+            // A message routed to several channels cannot be retried for one of them only
+            throw ex.illegalArgumentSharedReceiver(ic.getChannel(), sharedReceiver, "retry.max-attempts");
+        }
+    }
+
+    /**
+     * Makes a channel consume from the receiver of this channel, shared under the same {@code shared-receiver} name.
+     * The subscriptions of the joining channel are added to the receiver, and the messages matching them are routed to
+     * the joining channel. Its other attributes, apart from the payload type and content type, are ignored, its health is
+     * the health of the receiver.
+     *
+     * @return the stream of the joining channel
+     */
+    public Flow.Publisher<? extends Message<?>> join(SolaceConnectorIncomingConfiguration ic, PayloadCodecs codecs) {
+        checkShareable(ic);
+        InboundPayloadDecoder joiningDecoder = codecs.inbound(getPayloadType(ic), ic.getContentType().orElse(null));
+        joiningDecoder.warmUp();
+        // Unsettled messages are tracked by the receiver, for all the channels sharing it
+        ChannelMetrics joiningMetrics = ChannelMetrics.incoming(ic.getChannel(), null, null, EndToEndLatency.of(ic),
+                null);
+        metrics.add(joiningMetrics);
+        health.join(ic.getChannel());
+        Route route = new Route(joiningDecoder, joiningMetrics);
+        addSubscriptions(ic.getChannel(), route).add(ic.getSubscriptions().orElse(ic.getChannel()).split(","));
+        return routed(route);
+    }
+
+    private SolaceSubscriptions addSubscriptions(String subscriber, Route route) {
+        SolaceSubscriptions added = new SolaceSubscriptions(subscriber, this, route);
+        channelSubscriptions.add(added);
+        return added;
+    }
+
+    /**
+     * @return the subscriptions of the given channel, {@code null} if it does not consume from this channel receivers
+     */
+    public SolaceSubscriptions getSubscriptions(String subscriber) {
+        for (SolaceSubscriptions subscriptions : channelSubscriptions) {
+            if (subscriptions.getChannel().equals(subscriber)) {
+                return subscriptions;
+            }
+        }
+        return null;
+    }
+
+    CompletableFuture<Void> subscribe(String topic, Route route) {
+        if (route != null) {
+            router.add(topic, route);
+            if (isSubscribedByOthers(topic, route)) {
+                return CompletableFuture.completedFuture(null);
+            }
+        }
+        return subscriptionBatcher.submit(topic, true);
+    }
+
+    CompletableFuture<Void> unsubscribe(String topic, Route route) {
+        if (route != null) {
+            router.remove(topic, route);
+            // The receiver keeps the subscriptions still used by the other channels sharing it
+            if (isSubscribedByOthers(topic, route)) {
+                return CompletableFuture.completedFuture(null);
+            }
+        }
+        return subscriptionBatcher.submit(topic, false);
+    }
+
+    private boolean isSubscribedByOthers(String topic, Route route) {
+        for (SolaceSubscriptions subscriptions : channelSubscriptions) {
+            if (subscriptions.getRoute() != route && subscriptions.contains(topic)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Flow.Publisher<? extends Message<?>> routed(Route route) {
+        routes.add(route);
+        // The shared receiver is consumed once the first channel subscribes, the others buffer until they subscribe
+        return route.processor
+                .onItem().invoke(() -> {
+                    route.buffered.decrementAndGet();
+                    routeSubscriber.requestMore();
+                })
+                .onSubscription().invoke(() -> {
+                    if (routing.compareAndSet(false, true)) {
+                        source.subscribe(routeSubscriber);
+                    }
+                });
+    }
+
+    private void route(Message<?> message) {
+        SolaceInboundMessage<?> msg = (SolaceInboundMessage<?>) message;
+        String destination = msg.getMessage().getDestinationName();
+        List<Route> matched = router.route(destination);
+        if (matched.isEmpty()) {
+            if (unroutedTopics.size() < MAX_UNROUTED_TOPICS && unroutedTopics.add(destination)) {
+                SolaceLogging.log.messageNotRouted(sharedReceiver, destination);
+            } else {
+                SolaceLogging.log.messageNotRoutedAgain(sharedReceiver, destination);
+            }
+            // Settled according to the failure strategy of the channel configuring the receiver
+            msg.nack(ex.illegalStateNoRoute(sharedReceiver, destination));
+            return;
+        }
+        SharedSettlement shared = matched.size() == 1 ? null : new SharedSettlement(matched.size());
+        for (Route route : matched) {
+            if (route.metrics != channelMetrics) {
+                route.metrics.received();
+            }
+            route.buffered.incrementAndGet();
+            route.processor.onNext(new SolaceInboundMessage<>(msg, route.decoder, shared, route.metrics));
         }
     }
 
@@ -107,11 +484,113 @@ public class SolaceIncomingChannel implements ReceiverActivationPassivationConfi
         }
     }
 
+    private static FlowController newFlowController(SolaceConnectorIncomingConfiguration ic,
+            PersistentMessageReceiver receiver) {
+        int maxUnacked = ic.getMaxUnackedMessages().orElse(0);
+        Optional<Integer> highWatermark = ic.getFlowControlHighWatermark();
+        if (highWatermark.isEmpty() && maxUnacked <= 0) {
+            // Never pauses, only counts the unsettled messages to drain on shutdown
+            return new FlowController(receiver, Long.MAX_VALUE, Long.MAX_VALUE, 0);
+        }
+        int high = highWatermark.orElse(maxUnacked);
+        if (maxUnacked > 0) {
+            high = Math.min(high, maxUnacked);
+        }
+        // Without watermark, the receiver paused at the maximum resumes as soon as a message is settled
+        int low = ic.getFlowControlLowWatermark().orElse(highWatermark.isPresent() ? high / 2 : high - 1);
+        // Only the dedicated poller thread may wait for a permit, the push handler runs on the shared dispatch thread
+        // and relies on the pause
+        return new FlowController(receiver, high, low, "pull".equals(ic.getConsumerMode()) ? maxUnacked : 0);
+    }
+
+    private static Multi<Message<?>> untilSettled(SolaceInboundMessage<?> msg) {
+        return Multi.createFrom().emitter(emitter -> {
+            msg.whenSettled(emitter::complete);
+            emitter.emit(msg);
+        });
+    }
+
+    private static ReceiverPublisher.Overflow getOverflow(SolaceConnectorIncomingConfiguration ic,
+            FlowController flowController) {
+        if (flowController != null) {
+            return ReceiverPublisher.Overflow.PAUSE;
+        }
+        switch (ic.getDirectBackPressureStrategy()) {
+            case "drop-oldest":
+                return ReceiverPublisher.Overflow.DROP_OLDEST;
+            case "drop-latest":
+                return ReceiverPublisher.Overflow.DROP_LATEST;
+            default:
+                return ReceiverPublisher.Overflow.BUFFER;
+        }
+    }
+
+    static ExecutorService newPollerThread(String channel, boolean virtual) {
+        if (virtual) {
+            // Virtual threads are looked up reflectively, as the connector targets Java 11
+            try {
+                Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+                Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+                builder = builderClass.getMethod("name", String.class).invoke(builder, "solace-poller-" + channel);
+                return Executors.newSingleThreadExecutor((ThreadFactory) builderClass.getMethod("factory").invoke(builder));
+            } catch (ReflectiveOperationException e) {
+                SolaceLogging.log.virtualThreadsUnavailable(channel);
+            }
+        }
+        return Executors.newSingleThreadExecutor(r -> new Thread(r, "solace-poller-" + channel));
+    }
+
+    private static Class<?> getPayloadType(SolaceConnectorIncomingConfiguration ic) {
+        Optional<String> payloadType = ic.getPayloadType();
+        if (payloadType.isEmpty()) {
+            return Object.class;
+        }
+        try {
+            return Class.forName(payloadType.get(), false, Thread.currentThread().getContextClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw ex.illegalArgumentUnknownPayloadType(payloadType.get(), ic.getChannel(), e);
+        }
+    }
+
     private static ReplayStrategy getGroupMessageIdReplayStrategy(SolaceConnectorIncomingConfiguration ic) {
         String groupMessageId = ic.getPersistentReplayReplicationGroupMessageId().orElseThrow();
         return ReplayStrategy.replicationGroupMessageIdBased(InboundMessage.ReplicationGroupMessageId.of(groupMessageId));
     }
 
+    /**
+     * @return the checkpoint of the {@code checkpoint} replay strategy, {@code null} for other strategies
+     */
+    private static ReplayCheckpoint newCheckpoint(SolaceConnectorIncomingConfiguration ic) {
+        if (!"checkpoint".equals(ic.getPersistentReplayStrategy().orElse(null)) || "direct".equals(ic.getClientType())) {
+            return null;
+        }
+        // Messages of concurrent receivers are not received in spool order
+        if (ic.getConcurrency() > 1) {
+            throw ex.illegalArgumentReplayCheckpoint(ic.getChannel(), "concurrency");
+        }
+        return new ReplayCheckpoint(ic.getChannel(),
+                ic.getPersistentReplayCheckpointPath().orElse(ic.getChannel() + ".checkpoint"),
+                ic.getPersistentReplayCheckpointInterval(), ic.getPersistentReplayCheckpointFsync(),
+                ic.getPersistentReplayCheckpointFailedTimeout());
+    }
+
+    /**
+     * Resumes after the checkpoint, or without checkpoint yet, replays from the configured replication group message
+     * id or from the start.
+     */
+    private static ReplayStrategy getCheckpointReplayStrategy(SolaceConnectorIncomingConfiguration ic,
+            ReplayCheckpoint checkpoint) {
+        InboundMessage.ReplicationGroupMessageId restored = checkpoint.getRestored();
+        if (restored != null) {
+            SolaceLogging.log.replayResumed(ic.getChannel(), restored.toString());
+            return ReplayStrategy.replicationGroupMessageIdBased(restored);
+        }
+        if (ic.getPersistentReplayReplicationGroupMessageId().isPresent()) {
+            return getGroupMessageIdReplayStrategy(ic);
+        }
+        return ReplayStrategy.allMessages();
+    }
+
     private static ReplayStrategy getTimeBasedReplayStrategy(SolaceConnectorIncomingConfiguration ic) {
         String zoneDateTime = ic.getPersistentReplayTimebasedStartTime().orElseThrow();
         return ReplayStrategy.timeBased(ZonedDateTime.parse(zoneDateTime));
@@ -121,25 +600,208 @@ public class SolaceIncomingChannel implements ReceiverActivationPassivationConfi
         return this.stream;
     }
 
-    public void close() {
-        closed.compareAndSet(false, true);
-        receiver.terminate(3000);
+    public long getShutdownTimeout() {
+        return shutdownTimeout;
     }
 
-    public void isStarted(HealthReport.HealthReportBuilder builder) {
+    /**
+     * Drains the channel: stops receiving, waits until the messages already delivered are settled, and terminates the
+     * receivers. Messages still unsettled at the deadline are abandoned, to be redelivered by the broker.
+     *
+     * @param deadline the {@link System#nanoTime()} at which the channel must be closed
+     * @return a stage completed once the channel is closed, the same stage if already closing
+     */
+    public synchronized CompletableFuture<Void> close(long deadline) {
+        if (closing != null) {
+            return closing;
+        }
+        health.closed();
+        CompletableFuture<?>[] drained = flowControllers.stream()
+                .map(FlowController::drain)
+                .toArray(CompletableFuture[]::new);
+        closing = CompletableFuture.allOf(drained)
+                .completeOnTimeout(null, remaining(deadline), TimeUnit.MILLISECONDS)
+                .thenCompose(x -> {
+                    abandoned = flowControllers.stream().mapToLong(FlowController::getUnsettled).sum();
+                    if (abandoned > 0) {
+                        SolaceLogging.log.messagesAbandoned(channel, abandoned);
+                    }
+                    closed.compareAndSet(false, true);
+                    receiverPublishers.forEach(ReceiverPublisher::complete);
+                    // Send the coalesced acks before terminating the receivers
+                    ackHandlers.forEach(SolaceAckHandler::flush);
+                    flowControllers.forEach(FlowController::close);
+                    subscriptionBatcher.close();
+                    failureHandlers.forEach(SolaceFailureHandler::close);
+                    List<CompletableFuture<Void>> terminated = new ArrayList<>();
+                    for (MessageReceiver receiver : receivers) {
+                        terminated.add(receiver.terminateAsync(remaining(deadline)));
+                    }
+                    if (deadLetter != null) {
+                        terminated.add(deadLetter.close(remaining(deadline)));
+                    }
+                    return CompletableFuture.allOf(terminated.toArray(CompletableFuture[]::new));
+                })
+                .whenComplete((x, t) -> {
+                    pollerThreads.forEach(ExecutorService::shutdown);
+                    if (checkpoint != null) {
+                        checkpoint.close();
+                    }
+                    if (t != null) {
+                        SolaceLogging.log.unableToTerminate(channel, t);
+                    }
+                });
+        return closing;
+    }
 
+    /**
+     * @return the number of messages still unsettled when the channel was closed
+     */
+    public long getAbandoned() {
+        return abandoned;
     }
 
-    public void isReady(HealthReport.HealthReportBuilder builder) {
+    static long remaining(long deadline) {
+        return Math.max(TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()), 0);
+    }
 
+    public void isStarted(HealthReport.HealthReportBuilder builder) {
+        health.isStarted(builder);
+    }
+
+    public void isReady(HealthReport.HealthReportBuilder builder) {
+        health.isReady(builder);
     }
 
     public void isAlive(HealthReport.HealthReportBuilder builder) {
+        health.isAlive(builder);
+    }
 
+    public ChannelHealth getHealth() {
+        return health;
     }
 
-    @Override
-    public void onStateChange(ReceiverState receiverState, ReceiverState receiverState1, long l) {
+    /**
+     * @return the number of messages delivered and not settled yet
+     */
+    public long getUnsettled() {
+        long unsettled = 0;
+        for (FlowController flowController : flowControllers) {
+            unsettled += flowController.getUnsettled();
+        }
+        return unsettled;
+    }
+
+    /**
+     * @return the number of messages settled, by this channel and the channels sharing its receiver
+     */
+    private long getSettled() {
+        long settled = 0;
+        for (ChannelMetrics channelMetrics : metrics) {
+            settled += channelMetrics.getAcked() + channelMetrics.getNacked();
+        }
+        return settled;
+    }
+
+    /**
+     * @return the metrics of the channel, and of the channels sharing its receiver
+     */
+    public List<ChannelMetrics> getMetrics() {
+        return metrics;
+    }
+
+    public MessageFilter getFilter() {
+        return filter;
+    }
+
+    /**
+     * @return the replay checkpoint, {@code null} unless the {@code checkpoint} replay strategy is used
+     */
+    public ReplayCheckpoint getCheckpoint() {
+        return checkpoint;
+    }
+
+    public ActivationTracker getActivation() {
+        return activation;
+    }
+
+    static class Route {
+        final InboundPayloadDecoder decoder;
+        final ChannelMetrics metrics;
+        final UnicastProcessor<Message<?>> processor = UnicastProcessor.create();
+        // Routed messages not requested by the channel yet
+        final AtomicLong buffered = new AtomicLong();
+
+        Route(InboundPayloadDecoder decoder, ChannelMetrics metrics) {
+            this.decoder = decoder;
+            this.metrics = metrics;
+        }
+    }
+
+    /**
+     * Consumes the shared receiver on behalf of the channels sharing it. Messages are requested by windows of
+     * {@code consumer.buffer.capacity}, and only while none of the channels has that many messages waiting for its
+     * demand, so that a slow channel stops the receiver instead of buffering without bound.
+     */
+    private class RouteSubscriber implements Flow.Subscriber<Message<?>> {
+
+        private final int capacity;
+        // Guarded by this
+        private Flow.Subscription upstream;
+        private long outstanding;
+
+        RouteSubscriber(int capacity) {
+            this.capacity = Math.max(capacity, 1);
+        }
 
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            synchronized (this) {
+                upstream = subscription;
+            }
+            requestMore();
+        }
+
+        @Override
+        public void onNext(Message<?> message) {
+            synchronized (this) {
+                outstanding--;
+            }
+            route(message);
+            requestMore();
+        }
+
+        @Override
+        public void onError(Throwable failure) {
+            routes.forEach(r -> r.processor.onError(failure));
+        }
+
+        @Override
+        public void onComplete() {
+            routes.forEach(r -> r.processor.onComplete());
+        }
+
+        synchronized void requestMore() {
+            if (upstream == null || outstanding > capacity / 2) {
+                return;
+            }
+            for (Route route : routes) {
+                if (route.buffered.get() >= capacity) {
+                    return;
+                }
+            }
+            long n = capacity - outstanding;
+            outstanding = capacity;
+            upstream.request(n);
+        }
+    }
+
+    @Override
+    public void onStateChange(ReceiverState oldState, ReceiverState newState, long changeTimestamp) {
+        if (newState == ReceiverState.PASSIVE) {
+            // Ack what has been processed, before the messages get redelivered to the instance taking over
+            ackHandlers.forEach(SolaceAckHandler::flush);
+        }
+        activation.onStateChange(newState);
     }
 }
@@ -4,6 +4,16 @@ import java.util.Map;
 
 public class SolaceOutboundMetadata {
 
+    /**
+     * The user property holding the key of the partition of partitioned queues.
+     */
+    public static final String PARTITION_KEY_PROPERTY = "JMSXGroupID";
+
+    /**
+     * The user property holding the sender timestamp in milliseconds, set by outgoing channels stamping messages.
+     */
+    public static final String SENDER_TIMESTAMP_PROPERTY = "sender-timestamp";
+
     private final Map<String, String> httpContentHeaders;
     private final Long expiration;
     private final Integer priority;
@@ -13,6 +23,7 @@ public class SolaceOutboundMetadata {
     private final Long timeToLive;
     private final String applicationMessageId;
     private final Integer classOfService;
+    private final String partitionKey;
 
     public static PubSubOutboundMetadataBuilder builder() {
         return new PubSubOutboundMetadataBuilder();
@@ -27,6 +38,20 @@ public class SolaceOutboundMetadata {
             Long timeToLive,
             String applicationMessageId,
             Integer classOfService) {
+        this(httpContentHeaders, expiration, priority, senderId, properties, applicationMessageType, timeToLive,
+                applicationMessageId, classOfService, null);
+    }
+
+    public SolaceOutboundMetadata(Map<String, String> httpContentHeaders,
+            Long expiration,
+            Integer priority,
+            String senderId,
+            Map<String, String> properties,
+            String applicationMessageType,
+            Long timeToLive,
+            String applicationMessageId,
+            Integer classOfService,
+            String partitionKey) {
         this.httpContentHeaders = httpContentHeaders;
         this.expiration = expiration;
         this.priority = priority;
@@ -36,6 +61,7 @@ public class SolaceOutboundMetadata {
         this.timeToLive = timeToLive;
         this.applicationMessageId = applicationMessageId;
         this.classOfService = classOfService;
+        this.partitionKey = partitionKey;
     }
 
     public Map<String, String> getHttpContentHeaders() {
@@ -74,6 +100,10 @@ public class SolaceOutboundMetadata {
         return classOfService;
     }
 
+    public String getPartitionKey() {
+        return partitionKey;
+    }
+
     public static class PubSubOutboundMetadataBuilder {
         private Map<String, String> httpContentHeaders;
         private Long expiration;
@@ -84,8 +114,9 @@ public class SolaceOutboundMetadata {
         private Long timeToLive;
         private String applicationMessageId;
         private Integer classOfService;
+        private String partitionKey;
 
-        public PubSubOutboundMetadataBuilder setHttpContentHeaders(Map<String, String> httpContentHeader) {
+        public PubSubOutboundMetadataBuilder setHttpContentHeaders(Map<String, String> httpContentHeaders) {
             this.httpContentHeaders = httpContentHeaders;
             return this;
         }
@@ -130,9 +161,14 @@ public class SolaceOutboundMetadata {
             return this;
         }
 
+        public PubSubOutboundMetadataBuilder setPartitionKey(String partitionKey) {
+            this.partitionKey = partitionKey;
+            return this;
+        }
+
         public SolaceOutboundMetadata createPubSubOutboundMetadata() {
             return new SolaceOutboundMetadata(httpContentHeaders, expiration, priority, senderId, properties,
-                    applicationMessageType, timeToLive, applicationMessageId, classOfService);
+                    applicationMessageType, timeToLive, applicationMessageId, classOfService, partitionKey);
         }
     }
 }
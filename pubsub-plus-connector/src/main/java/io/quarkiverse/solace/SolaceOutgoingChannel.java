@@ -1,39 +1,106 @@
 package io.quarkiverse.solace;
 
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.microprofile.reactive.messaging.Message;
 
+import com.solace.messaging.DirectMessagePublisherBuilder;
 import com.solace.messaging.MessagingService;
 import com.solace.messaging.PersistentMessagePublisherBuilder;
 import com.solace.messaging.PubSubPlusClientException;
+import com.solace.messaging.config.PublisherBackPressureConfiguration;
+import com.solace.messaging.publisher.DirectMessagePublisher;
+import com.solace.messaging.publisher.MessagePublisher;
 import com.solace.messaging.publisher.OutboundMessage;
 import com.solace.messaging.publisher.OutboundMessageBuilder;
 import com.solace.messaging.publisher.PersistentMessagePublisher;
 import com.solace.messaging.publisher.PersistentMessagePublisher.PublishReceipt;
 import com.solace.messaging.resources.Topic;
 
-import io.netty.handler.codec.http.HttpHeaderValues;
+import io.quarkiverse.solace.codecs.OutboundPayloadEncoder;
+import io.quarkiverse.solace.codecs.PayloadCodecs;
 import io.quarkiverse.solace.i18n.SolaceLogging;
 import io.smallrye.mutiny.Uni;
 import io.smallrye.mutiny.subscription.UniEmitter;
 import io.smallrye.reactive.messaging.OutgoingMessageMetadata;
 import io.smallrye.reactive.messaging.health.HealthReport;
 import io.smallrye.reactive.messaging.providers.helpers.MultiUtils;
-import io.vertx.core.json.Json;
 import io.vertx.mutiny.core.Vertx;
 
 public class SolaceOutgoingChannel implements PersistentMessagePublisher.MessagePublishReceiptListener {
 
-    private final PersistentMessagePublisher publisher;
+    private final MessagePublisher publisher;
+    // Only one of the persistent and direct publishers is set, depending on the client type
+    private final PersistentMessagePublisher persistentPublisher;
+    private final DirectMessagePublisher directPublisher;
     private final String channel;
     private final Flow.Subscriber<? extends Message<?>> subscriber;
     private final Topic topic;
     private final SenderProcessor processor;
+    private final OutboundPayloadEncoder encoder;
+    private final PartitionKeyExtractor partitionKeyExtractor;
+    private final InflightTracker pending = new InflightTracker();
+    private final long shutdownTimeout;
+    private final ChannelMetrics metrics;
+    private final boolean senderTimestamp;
+    private final ChannelHealth health;
+    private CompletableFuture<Void> closing;
+    private volatile long abandoned;
 
-    public SolaceOutgoingChannel(Vertx vertx, SolaceConnectorOutgoingConfiguration oc, MessagingService solace) {
+    public SolaceOutgoingChannel(Vertx vertx, SolaceConnectorOutgoingConfiguration oc, MessagingService solace,
+            PayloadCodecs codecs, PartitionKeyExtractor partitionKeyExtractor) {
         this.channel = oc.getChannel();
-        PersistentMessagePublisherBuilder builder = solace.createPersistentMessagePublisherBuilder();
+        this.partitionKeyExtractor = partitionKeyExtractor;
+        this.shutdownTimeout = oc.getClientShutdownTimeout();
+        this.metrics = ChannelMetrics.outgoing(channel, pending::get);
+        this.senderTimestamp = oc.getSenderTimestamp();
+        // Detects the wait and elastic back-pressure strategies holding the messages, which never reject them
+        this.health = new ChannelHealth(channel, solace, oc.getHealthEnabled(), oc.getHealthStallThreshold(),
+                pending::get, () -> metrics.getReceipts() + metrics.getFailures());
+        this.encoder = codecs.outbound(oc.getContentType().orElse(null));
+        // Direct messages have no publish receipt
+        boolean direct = "direct".equals(oc.getClientType());
+        boolean waitForPublishReceipt = !direct && oc.getWaitForPublishReceipt();
+        if (direct) {
+            DirectMessagePublisherBuilder builder = solace.createDirectMessagePublisherBuilder();
+            configureBackPressure(builder, oc);
+            this.persistentPublisher = null;
+            this.directPublisher = builder.build();
+            this.directPublisher.setPublishFailureListener(this::onFailedPublish);
+            this.publisher = directPublisher;
+        } else {
+            PersistentMessagePublisherBuilder builder = solace.createPersistentMessagePublisherBuilder();
+            configureBackPressure(builder, oc);
+            oc.getDeliveryAckTimeout().ifPresent(builder::withDeliveryAckTimeout);
+            oc.getDeliveryAckWindowSize().ifPresent(builder::withDeliveryAckWindowSize);
+            this.directPublisher = null;
+            this.persistentPublisher = builder.build();
+            if (waitForPublishReceipt) {
+                persistentPublisher.setMessagePublishReceiptListener(this);
+            }
+            this.publisher = persistentPublisher;
+        }
+        publisher.setTerminationNotificationListener(health);
+        // Notified once the publisher can publish again after being back-pressured
+        publisher.setPublisherReadinessListener(health);
+        boolean lazyStart = oc.getClientLazyStart();
+        this.topic = Topic.of(oc.getTopic().orElse(this.channel));
+        this.processor = new SenderProcessor(oc.getMaxInflightMessages(), waitForPublishReceipt,
+                m -> sendMessage(solace, m, waitForPublishReceipt));
+        this.subscriber = MultiUtils.via(processor, multi -> multi.plug(
+                m -> lazyStart ? m.onSubscription().call(() -> Uni.createFrom().completionStage(publisher.startAsync())
+                        .invoke(health::started)) : m));
+        if (!lazyStart) {
+            this.publisher.start();
+            health.started();
+        }
+    }
+
+    private static void configureBackPressure(PublisherBackPressureConfiguration builder,
+            SolaceConnectorOutgoingConfiguration oc) {
         // TODO which default backpressure strategy : wait or elastic?
         switch (oc.getBackPressureStrategy()) {
             case "reject":
@@ -46,41 +113,37 @@ public class SolaceOutgoingChannel implements PersistentMessagePublisher.Message
                 builder.onBackPressureElastic();
                 break;
         }
-        oc.getDeliveryAckTimeout().ifPresent(builder::withDeliveryAckTimeout);
-        oc.getDeliveryAckWindowSize().ifPresent(builder::withDeliveryAckWindowSize);
-        this.publisher = builder.build();
-        if (oc.getWaitForPublishReceipt()) {
-            publisher.setMessagePublishReceiptListener(this);
-        }
-        boolean lazyStart = oc.getClientLazyStart();
-        this.topic = Topic.of(oc.getTopic().orElse(this.channel));
-        this.processor = new SenderProcessor(oc.getMaxInflightMessages(), oc.getWaitForPublishReceipt(),
-                m -> sendMessage(solace, m, oc.getWaitForPublishReceipt()));
-        this.subscriber = MultiUtils.via(processor, multi -> multi.plug(
-                m -> lazyStart ? m.onSubscription().call(() -> Uni.createFrom().completionStage(publisher.startAsync())) : m));
-        if (!lazyStart) {
-            this.publisher.start();
-        }
     }
 
     private Uni<Void> sendMessage(MessagingService solace, Message<?> m, boolean waitForPublishReceipt) {
-        return publishMessage(publisher, m, solace.messageBuilder(), waitForPublishReceipt)
+        return Uni.createFrom().deferred(() -> {
+            long sentAt = System.nanoTime();
+            metrics.sent();
+            return publishMessage(m, solace.messageBuilder(), waitForPublishReceipt)
+                    .onItemOrFailure().invoke((receipt, failure) -> metrics.published(sentAt, failure));
+        })
                 .onItem().transformToUni(receipt -> {
                     if (receipt != null) {
                         OutgoingMessageMetadata.setResultOnMessage(m, receipt);
                     }
                     return Uni.createFrom().completionStage(m.ack());
                 })
-                .onFailure().recoverWithUni(t -> Uni.createFrom().completionStage(m.nack(t)));
+                .onFailure().recoverWithUni(t -> Uni.createFrom().completionStage(m.nack(t)))
+                .onSubscription().invoke(pending::increment)
+                .onTermination().invoke(pending::decrement);
     }
 
-    private Uni<PublishReceipt> publishMessage(PersistentMessagePublisher publisher, Message<?> m,
+    private Uni<PublishReceipt> publishMessage(Message<?> m,
             OutboundMessageBuilder msgBuilder, boolean waitForPublishReceipt) {
         Topic topic = this.topic;
-        OutboundMessage outboundMessage;
-        m.getMetadata(SolaceOutboundMetadata.class).ifPresent(metadata -> {
-            metadata.getHttpContentHeaders().forEach(msgBuilder::withHTTPContentHeader);
-            metadata.getProperties().forEach(msgBuilder::withProperty);
+        Optional<SolaceOutboundMetadata> outboundMetadata = m.getMetadata(SolaceOutboundMetadata.class);
+        outboundMetadata.ifPresent(metadata -> {
+            if (metadata.getHttpContentHeaders() != null) {
+                metadata.getHttpContentHeaders().forEach(msgBuilder::withHTTPContentHeader);
+            }
+            if (metadata.getProperties() != null) {
+                metadata.getProperties().forEach(msgBuilder::withProperty);
+            }
             if (metadata.getExpiration() != null) {
                 msgBuilder.withExpiration(metadata.getExpiration());
             }
@@ -103,29 +166,34 @@ public class SolaceOutgoingChannel implements PersistentMessagePublisher.Message
                 msgBuilder.withClassOfService(metadata.getClassOfService());
             }
         });
-        Object payload = m.getPayload();
-        if (payload instanceof OutboundMessage) {
-            outboundMessage = (OutboundMessage) payload;
-        } else if (payload instanceof String) {
-            outboundMessage = msgBuilder
-                    .withHTTPContentHeader(HttpHeaderValues.TEXT_PLAIN.toString(), "")
-                    .build((String) payload);
-        } else if (payload instanceof byte[]) {
-            outboundMessage = msgBuilder.build((byte[]) payload);
-        } else {
-            outboundMessage = msgBuilder
-                    .withHTTPContentHeader(HttpHeaderValues.APPLICATION_JSON.toString(), "")
-                    .build(Json.encode(payload));
+        String partitionKey = outboundMetadata.map(SolaceOutboundMetadata::getPartitionKey)
+                .orElseGet(() -> partitionKeyExtractor == null ? null : partitionKeyExtractor.extract(m.getPayload()));
+        if (partitionKey != null) {
+            msgBuilder.withProperty(SolaceOutboundMetadata.PARTITION_KEY_PROPERTY, partitionKey);
+        }
+        if (senderTimestamp) {
+            msgBuilder.withProperty(SolaceOutboundMetadata.SENDER_TIMESTAMP_PROPERTY,
+                    Long.toString(System.currentTimeMillis()));
         }
         return Uni.createFrom().<PublishReceipt> emitter(e -> {
             try {
-                if (waitForPublishReceipt) {
-                    publisher.publish(outboundMessage, topic, e);
+                Object payload = m.getPayload();
+                OutboundMessage outboundMessage = payload instanceof OutboundMessage ? (OutboundMessage) payload
+                        : encoder.encode(msgBuilder, payload);
+                if (directPublisher != null) {
+                    directPublisher.publish(outboundMessage, topic);
+                    e.complete(null);
+                } else if (waitForPublishReceipt) {
+                    persistentPublisher.publish(outboundMessage, topic, e);
                 } else {
-                    publisher.publish(outboundMessage, topic);
+                    persistentPublisher.publish(outboundMessage, topic);
                     e.complete(null);
                 }
             } catch (Throwable t) {
+                if (t instanceof PubSubPlusClientException.PublisherOverflowException) {
+                    health.backPressured();
+                    publisher.notifyWhenReady();
+                }
                 e.fail(t);
             }
         }).invoke(() -> SolaceLogging.log.successfullyToTopic(channel, topic.getName()));
@@ -135,11 +203,51 @@ public class SolaceOutgoingChannel implements PersistentMessagePublisher.Message
         return this.subscriber;
     }
 
-    void close() {
+    public ChannelMetrics getMetrics() {
+        return metrics;
+    }
+
+    public long getShutdownTimeout() {
+        return shutdownTimeout;
+    }
+
+    /**
+     * Drains the channel: stops sending, waits for the publish receipts of the messages already sent, and terminates
+     * the publisher. Messages without receipt at the deadline are abandoned.
+     *
+     * @param deadline the {@link System#nanoTime()} at which the channel must be closed
+     * @return a stage completed once the channel is closed, the same stage if already closing
+     */
+    synchronized CompletableFuture<Void> close(long deadline) {
+        if (closing != null) {
+            return closing;
+        }
+        health.closed();
         if (processor != null) {
             processor.cancel();
         }
-        publisher.terminate(5000);
+        closing = pending.whenDrained()
+                .completeOnTimeout(null, SolaceIncomingChannel.remaining(deadline), TimeUnit.MILLISECONDS)
+                .thenCompose(x -> {
+                    abandoned = pending.get();
+                    if (abandoned > 0) {
+                        SolaceLogging.log.messagesAbandoned(channel, abandoned);
+                    }
+                    return publisher.terminateAsync(SolaceIncomingChannel.remaining(deadline));
+                })
+                .whenComplete((x, t) -> {
+                    if (t != null) {
+                        SolaceLogging.log.unableToTerminate(channel, t);
+                    }
+                });
+        return closing;
+    }
+
+    /**
+     * @return the number of messages without publish receipt when the channel was closed
+     */
+    public long getAbandoned() {
+        return abandoned;
     }
 
     @Override
@@ -153,15 +261,19 @@ public class SolaceOutgoingChannel implements PersistentMessagePublisher.Message
         }
     }
 
-    public void isStarted(HealthReport.HealthReportBuilder builder) {
+    private void onFailedPublish(DirectMessagePublisher.FailedPublishEvent event) {
+        SolaceLogging.log.directPublishFailed(channel, event.getDestination().getName(), event.getException());
+    }
 
+    public void isStarted(HealthReport.HealthReportBuilder builder) {
+        health.isStarted(builder);
     }
 
     public void isReady(HealthReport.HealthReportBuilder builder) {
-
+        health.isReady(builder);
     }
 
     public void isAlive(HealthReport.HealthReportBuilder builder) {
-
+        health.isAlive(builder);
     }
 }
@@ -0,0 +1,26 @@
+package io.quarkiverse.solace;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.reactive.messaging.spi.Connector;
+
+/**
+ * Gives access to the subscriptions of the incoming channels, to change them at runtime.
+ */
+@ApplicationScoped
+public class SolaceSubscriptionService {
+
+    @Inject
+    @Connector(SolaceConnector.CONNECTOR_NAME)
+    SolaceConnector connector;
+
+    /**
+     * @param channel the name of an incoming channel of the connector
+     * @return the subscriptions of the channel
+     * @throws IllegalArgumentException if there is no such channel
+     */
+    public SolaceSubscriptions getSubscriptions(String channel) {
+        return connector.getSubscriptions(channel);
+    }
+}
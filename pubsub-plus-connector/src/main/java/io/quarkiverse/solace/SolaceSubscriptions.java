@@ -0,0 +1,95 @@
+package io.quarkiverse.solace;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The topic subscriptions of an incoming channel, changed at runtime without restarting the channel.
+ * <p>
+ * Changes are applied asynchronously, the changes requested together being sent to the broker in a single batch.
+ * Retrieved from {@link SolaceSubscriptionService#getSubscriptions(String)}.
+ */
+public class SolaceSubscriptions {
+
+    private final String channel;
+    private final SolaceIncomingChannel receiver;
+    private final SolaceIncomingChannel.Route route;
+    private final Set<String> subscriptions = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param receiver the channel owning the receivers
+     * @param route the route of the channel, when sharing the receivers with other channels
+     */
+    SolaceSubscriptions(String channel, SolaceIncomingChannel receiver, SolaceIncomingChannel.Route route) {
+        this.channel = channel;
+        this.receiver = receiver;
+        this.route = route;
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    /**
+     * @return the current subscriptions, including the ones still being applied
+     */
+    public Set<String> getSubscriptions() {
+        return Collections.unmodifiableSet(subscriptions);
+    }
+
+    SolaceIncomingChannel.Route getRoute() {
+        return route;
+    }
+
+    boolean contains(String topic) {
+        return subscriptions.contains(topic);
+    }
+
+    /**
+     * Records the subscriptions the receivers have been built with.
+     */
+    void init(Collection<String> topics) {
+        subscriptions.addAll(topics);
+    }
+
+    /**
+     * @return a stage completed once the broker has applied the subscriptions
+     */
+    public CompletionStage<Void> add(String... topics) {
+        return add(Arrays.asList(topics));
+    }
+
+    public CompletionStage<Void> add(Collection<String> topics) {
+        List<CompletableFuture<Void>> added = new ArrayList<>();
+        for (String topic : topics) {
+            if (subscriptions.add(topic)) {
+                added.add(receiver.subscribe(topic, route));
+            }
+        }
+        return CompletableFuture.allOf(added.toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * @return a stage completed once the broker has removed the subscriptions
+     */
+    public CompletionStage<Void> remove(String... topics) {
+        return remove(Arrays.asList(topics));
+    }
+
+    public CompletionStage<Void> remove(Collection<String> topics) {
+        List<CompletableFuture<Void>> removed = new ArrayList<>();
+        for (String topic : topics) {
+            if (subscriptions.remove(topic)) {
+                removed.add(receiver.unsubscribe(topic, route));
+            }
+        }
+        return CompletableFuture.allOf(removed.toArray(CompletableFuture[]::new));
+    }
+}
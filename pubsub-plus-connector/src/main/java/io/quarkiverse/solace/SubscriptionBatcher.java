@@ -0,0 +1,124 @@
+package io.quarkiverse.solace;
+
+import static io.quarkiverse.solace.i18n.SolaceExceptions.ex;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import com.solace.messaging.receiver.AsyncReceiverSubscriptions;
+import com.solace.messaging.receiver.MessageReceiver;
+import com.solace.messaging.resources.TopicSubscription;
+
+import io.quarkiverse.solace.i18n.SolaceLogging;
+import io.vertx.mutiny.core.Context;
+
+/**
+ * Batches the subscription changes of the receivers of a channel.
+ * <p>
+ * Changes submitted until the context runs the flush are applied together, the broker calls being issued
+ * asynchronously without waiting for each other. An addition and a removal of the same topic in a batch cancel out.
+ * Changes submitted before the receivers are started are applied once they are.
+ */
+class SubscriptionBatcher {
+
+    private final String channel;
+    private final Context context;
+    private final List<MessageReceiver> receivers;
+    private Map<String, Boolean> pending = new LinkedHashMap<>();
+    private List<CompletableFuture<Void>> waiting = new ArrayList<>();
+    private boolean scheduled;
+    private boolean closed;
+
+    /**
+     * @param receivers the receivers to apply the changes to, started by the channel
+     */
+    SubscriptionBatcher(String channel, Context context, List<MessageReceiver> receivers) {
+        this.channel = channel;
+        this.context = context;
+        this.receivers = receivers;
+    }
+
+    synchronized CompletableFuture<Void> submit(String topic, boolean add) {
+        CompletableFuture<Void> applied = new CompletableFuture<>();
+        if (closed) {
+            applied.completeExceptionally(ex.illegalStateChannelClosed(channel));
+            return applied;
+        }
+        Boolean previous = pending.remove(topic);
+        if (previous == null || previous == add) {
+            pending.put(topic, add);
+        }
+        waiting.add(applied);
+        if (!scheduled) {
+            scheduled = true;
+            context.runOnContext(this::flush);
+        }
+        return applied;
+    }
+
+    void flush() {
+        Map<String, Boolean> changes;
+        List<CompletableFuture<Void>> applied;
+        synchronized (this) {
+            scheduled = false;
+            if (waiting.isEmpty() || !receivers.stream().allMatch(MessageReceiver::isRunning)) {
+                return;
+            }
+            changes = pending;
+            applied = waiting;
+            pending = new LinkedHashMap<>();
+            waiting = new ArrayList<>();
+        }
+        List<CompletableFuture<Void>> calls = new ArrayList<>();
+        changes.forEach((topic, add) -> {
+            for (MessageReceiver receiver : receivers) {
+                calls.add(change((AsyncReceiverSubscriptions) receiver, TopicSubscription.of(topic), add));
+            }
+        });
+        SolaceLogging.log.subscriptionsChanged(changes.size(), channel);
+        CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new))
+                .whenComplete((x, t) -> applied.forEach(f -> {
+                    if (t != null) {
+                        f.completeExceptionally(t);
+                    } else {
+                        f.complete(null);
+                    }
+                }));
+    }
+
+    private static CompletableFuture<Void> change(AsyncReceiverSubscriptions receiver, TopicSubscription subscription,
+            boolean add) {
+        CompletableFuture<Void> changed = new CompletableFuture<>();
+        AsyncReceiverSubscriptions.SubscriptionChangeListener listener = (s, operation, exception) -> {
+            if (exception != null) {
+                changed.completeExceptionally(exception);
+            } else {
+                changed.complete(null);
+            }
+        };
+        try {
+            if (add) {
+                receiver.addSubscriptionAsync(subscription, listener);
+            } else {
+                receiver.removeSubscriptionAsync(subscription, listener);
+            }
+        } catch (Throwable t) {
+            changed.completeExceptionally(t);
+        }
+        return changed;
+    }
+
+    void close() {
+        List<CompletableFuture<Void>> abandoned;
+        synchronized (this) {
+            closed = true;
+            abandoned = waiting;
+            pending = new LinkedHashMap<>();
+            waiting = new ArrayList<>();
+        }
+        abandoned.forEach(f -> f.completeExceptionally(ex.illegalStateChannelClosed(channel)));
+    }
+}
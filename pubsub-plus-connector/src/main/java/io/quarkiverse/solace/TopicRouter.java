@@ -0,0 +1,156 @@
+package io.quarkiverse.solace;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Routes topics to the targets of the matching Solace subscription patterns.
+ * <p>
+ * Patterns are compiled into a trie of topic levels, so that routing a topic costs a walk of its levels, whatever the
+ * number of patterns. Levels follow the Solace wildcard semantics: {@code *} matches a single level, {@code abc*}
+ * matches a single level starting with {@code abc}, and {@code >} as last level matches one or more levels.
+ * Routing is lock-free, patterns may be added concurrently.
+ *
+ * @param <T> the target type
+ */
+public class TopicRouter<T> {
+
+    private static final String LEVEL_SEPARATOR = "/";
+    private static final String ANY_LEVEL = "*";
+    private static final String REMAINING_LEVELS = ">";
+
+    private final Node<T> root = new Node<>();
+
+    public void add(String pattern, T target) {
+        String[] levels = pattern.split(LEVEL_SEPARATOR, -1);
+        Node<T> node = root;
+        for (int i = 0; i < levels.length; i++) {
+            String level = levels[i];
+            if (REMAINING_LEVELS.equals(level) && i == levels.length - 1) {
+                node.remainingLevels.addIfAbsent(target);
+                return;
+            }
+            if (ANY_LEVEL.equals(level)) {
+                node = node.anyLevel();
+            } else if (level.endsWith(ANY_LEVEL)) {
+                node = node.prefix(level.substring(0, level.length() - 1));
+            } else {
+                node = node.children.computeIfAbsent(level, l -> new Node<>());
+            }
+        }
+        node.targets.addIfAbsent(target);
+    }
+
+    /**
+     * Removes the target of a pattern. The trie nodes are kept, to be reused if the pattern is added again.
+     */
+    public void remove(String pattern, T target) {
+        String[] levels = pattern.split(LEVEL_SEPARATOR, -1);
+        Node<T> node = root;
+        for (int i = 0; i < levels.length && node != null; i++) {
+            String level = levels[i];
+            if (REMAINING_LEVELS.equals(level) && i == levels.length - 1) {
+                node.remainingLevels.remove(target);
+                return;
+            }
+            if (ANY_LEVEL.equals(level)) {
+                node = node.anyLevel;
+            } else if (level.endsWith(ANY_LEVEL)) {
+                node = node.findPrefix(level.substring(0, level.length() - 1));
+            } else {
+                node = node.children.get(level);
+            }
+        }
+        if (node != null) {
+            node.targets.remove(target);
+        }
+    }
+
+    /**
+     * @return the targets of the patterns matching the topic, each target once
+     */
+    public List<T> route(String topic) {
+        List<T> matched = new ArrayList<>(2);
+        if (topic != null) {
+            match(root, topic.split(LEVEL_SEPARATOR, -1), 0, matched);
+        }
+        return matched;
+    }
+
+    private static <T> void match(Node<T> node, String[] levels, int index, List<T> matched) {
+        if (index == levels.length) {
+            addAll(node.targets, matched);
+            return;
+        }
+        // At least one level remains
+        addAll(node.remainingLevels, matched);
+        String level = levels[index];
+        Node<T> child = node.children.get(level);
+        if (child != null) {
+            match(child, levels, index + 1, matched);
+        }
+        Node<T> anyLevel = node.anyLevel;
+        if (anyLevel != null) {
+            match(anyLevel, levels, index + 1, matched);
+        }
+        for (PrefixNode<T> prefix : node.prefixes) {
+            if (level.startsWith(prefix.prefix)) {
+                match(prefix.node, levels, index + 1, matched);
+            }
+        }
+    }
+
+    private static <T> void addAll(List<T> targets, List<T> matched) {
+        for (T target : targets) {
+            if (!matched.contains(target)) {
+                matched.add(target);
+            }
+        }
+    }
+
+    private static class Node<T> {
+        final Map<String, Node<T>> children = new ConcurrentHashMap<>();
+        final List<PrefixNode<T>> prefixes = new CopyOnWriteArrayList<>();
+        final CopyOnWriteArrayList<T> targets = new CopyOnWriteArrayList<>();
+        final CopyOnWriteArrayList<T> remainingLevels = new CopyOnWriteArrayList<>();
+        volatile Node<T> anyLevel;
+
+        synchronized Node<T> anyLevel() {
+            if (anyLevel == null) {
+                anyLevel = new Node<>();
+            }
+            return anyLevel;
+        }
+
+        Node<T> findPrefix(String prefix) {
+            for (PrefixNode<T> existing : prefixes) {
+                if (existing.prefix.equals(prefix)) {
+                    return existing.node;
+                }
+            }
+            return null;
+        }
+
+        synchronized Node<T> prefix(String prefix) {
+            Node<T> existing = findPrefix(prefix);
+            if (existing != null) {
+                return existing;
+            }
+            PrefixNode<T> added = new PrefixNode<>(prefix);
+            prefixes.add(added);
+            return added.node;
+        }
+    }
+
+    private static class PrefixNode<T> {
+        final String prefix;
+        final Node<T> node = new Node<>();
+
+        PrefixNode(String prefix) {
+            this.prefix = prefix;
+        }
+    }
+}
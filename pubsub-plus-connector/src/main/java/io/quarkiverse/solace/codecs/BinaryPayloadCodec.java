@@ -0,0 +1,32 @@
+package io.quarkiverse.solace.codecs;
+
+import java.lang.reflect.Type;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import io.netty.handler.codec.http.HttpHeaderValues;
+
+@ApplicationScoped
+public class BinaryPayloadCodec implements PayloadCodec {
+
+    @Override
+    public String contentType() {
+        return HttpHeaderValues.APPLICATION_OCTET_STREAM.toString();
+    }
+
+    @Override
+    public Decoder decoder(Type target) {
+        if (target == Object.class || target == byte[].class) {
+            return bytes -> bytes;
+        }
+        return null;
+    }
+
+    @Override
+    public Encoder encoder(Class<?> payloadType) {
+        if (payloadType == byte[].class) {
+            return (builder, payload) -> builder.build((byte[]) payload);
+        }
+        return null;
+    }
+}
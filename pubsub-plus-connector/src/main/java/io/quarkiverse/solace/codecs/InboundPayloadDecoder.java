@@ -0,0 +1,104 @@
+package io.quarkiverse.solace.codecs;
+
+import java.lang.reflect.Type;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.solace.messaging.receiver.InboundMessage;
+
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.quarkiverse.solace.i18n.SolaceLogging;
+
+/**
+ * Decodes the payloads of a channel, the codec resolution is done once per content type, ignoring its case and
+ * parameters. The resolutions are cached for a bounded number of content types, as they come from the messages.
+ * <p>
+ * Channels expecting the Solace {@link InboundMessage} get the message itself, its payload is never decoded.
+ */
+public class InboundPayloadDecoder {
+
+    static final int MAX_CONTENT_TYPES = 64;
+
+    private final PayloadCodecs codecs;
+    private final Type target;
+    private final String defaultContentType;
+    private final Map<String, Optional<PayloadCodec.Decoder>> decoders = new ConcurrentHashMap<>();
+
+    InboundPayloadDecoder(PayloadCodecs codecs, Type target, String defaultContentType) {
+        this.codecs = codecs;
+        this.target = target;
+        this.defaultContentType = defaultContentType;
+    }
+
+    public Object decode(InboundMessage msg) {
+        if (target == InboundMessage.class) {
+            return msg;
+        }
+        // Neither of these are guaranteed to be non-null
+        final String contentType = msg.getRestInteroperabilitySupport().getHTTPContentType();
+        final String contentEncoding = msg.getRestInteroperabilitySupport().getHTTPContentEncoding();
+        final byte[] bytes = msg.getPayloadAsBytes();
+
+        // If there is a content encoding specified, we don't try to unwrap
+        if (contentEncoding == null || contentEncoding.isBlank()) {
+            String effectiveContentType = contentType == null ? defaultContentType : contentType;
+            PayloadCodec.Decoder decoder = decoder(effectiveContentType);
+            if (decoder != null) {
+                try {
+                    return decoder.decode(bytes);
+                } catch (Throwable t) {
+                    // A payload not matching its content type, rather than a missing content type
+                    SolaceLogging.log.payloadNotDecoded(effectiveContentType, target.getTypeName(), t);
+                }
+            }
+            // Otherwise fall back to raw byte array
+        } else {
+            // Just silence the warning if we have a binary message
+            if (!HttpHeaderValues.APPLICATION_OCTET_STREAM.toString().equalsIgnoreCase(contentType)) {
+                SolaceLogging.log.typeConversionFallback();
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Resolves the decoders of every known content type upfront, instead of on the first message of each.
+     */
+    public void warmUp() {
+        if (target == InboundMessage.class) {
+            return;
+        }
+        decoder(defaultContentType);
+        codecs.contentTypes().forEach(this::decoder);
+    }
+
+    private PayloadCodec.Decoder decoder(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        String key = normalize(contentType);
+        Optional<PayloadCodec.Decoder> decoder = decoders.get(key);
+        if (decoder == null) {
+            decoder = Optional.ofNullable(codecs.findDecoder(key, target));
+            // Beyond the bound, the content types are resolved for each message
+            if (decoders.size() < MAX_CONTENT_TYPES) {
+                decoders.putIfAbsent(key, decoder);
+            }
+        }
+        return decoder.orElse(null);
+    }
+
+    int getCachedContentTypes() {
+        return decoders.size();
+    }
+
+    /**
+     * @return the media type of the content type, lower-cased and without parameters such as the charset
+     */
+    static String normalize(String contentType) {
+        int parameters = contentType.indexOf(';');
+        return (parameters < 0 ? contentType : contentType.substring(0, parameters)).trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,61 @@
+package io.quarkiverse.solace.codecs;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.EncodeException;
+import io.vertx.core.json.jackson.DatabindCodec;
+
+/**
+ * JSON codec using the Vert.x object mapper.
+ * Payloads without a specific target type are decoded to {@code JsonObject}, {@code JsonArray} or scalar values.
+ */
+@ApplicationScoped
+public class JsonPayloadCodec implements PayloadCodec {
+
+    @Override
+    public String contentType() {
+        return HttpHeaderValues.APPLICATION_JSON.toString();
+    }
+
+    @Override
+    public Decoder decoder(Type target) {
+        if (target == Object.class) {
+            return bytes -> Buffer.buffer(Unpooled.wrappedBuffer(bytes)).toJson();
+        }
+        ObjectMapper mapper = DatabindCodec.mapper();
+        ObjectReader reader = mapper.readerFor(mapper.constructType(target));
+        return bytes -> {
+            try {
+                return reader.readValue(bytes);
+            } catch (IOException e) {
+                throw new DecodeException("Failed to decode: " + e.getMessage(), e);
+            }
+        };
+    }
+
+    @Override
+    public Encoder encoder(Class<?> payloadType) {
+        ObjectWriter writer = DatabindCodec.mapper().writerFor(payloadType);
+        String contentType = contentType();
+        return (builder, payload) -> {
+            try {
+                return builder.withHTTPContentHeader(contentType, "")
+                        .build(writer.writeValueAsString(payload));
+            } catch (JsonProcessingException e) {
+                throw new EncodeException("Failed to encode as JSON: " + e.getMessage(), e);
+            }
+        };
+    }
+}
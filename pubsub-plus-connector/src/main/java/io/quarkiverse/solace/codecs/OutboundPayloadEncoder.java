@@ -0,0 +1,54 @@
+package io.quarkiverse.solace.codecs;
+
+import static io.quarkiverse.solace.i18n.SolaceExceptions.ex;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.solace.messaging.publisher.OutboundMessage;
+import com.solace.messaging.publisher.OutboundMessageBuilder;
+
+import io.netty.handler.codec.http.HttpHeaderValues;
+
+/**
+ * Encodes the payloads of a channel, the codec resolution is done once per payload type.
+ * Without configured content type, {@code String} payloads are sent as text, {@code byte[]} as is, and other types as JSON.
+ */
+public class OutboundPayloadEncoder {
+
+    private final PayloadCodecs codecs;
+    private final String contentType;
+    private final Map<Class<?>, PayloadCodec.Encoder> encoders = new ConcurrentHashMap<>();
+
+    OutboundPayloadEncoder(PayloadCodecs codecs, String contentType) {
+        this.codecs = codecs;
+        this.contentType = contentType;
+    }
+
+    public OutboundMessage encode(OutboundMessageBuilder builder, Object payload) {
+        Class<?> payloadType = payload.getClass();
+        PayloadCodec.Encoder encoder = encoders.get(payloadType);
+        if (encoder == null) {
+            encoder = encoders.computeIfAbsent(payloadType, this::resolve);
+        }
+        return encoder.encode(builder, payload);
+    }
+
+    private PayloadCodec.Encoder resolve(Class<?> payloadType) {
+        String ct = contentType;
+        if (ct == null) {
+            if (payloadType == String.class) {
+                ct = HttpHeaderValues.TEXT_PLAIN.toString();
+            } else if (payloadType == byte[].class) {
+                ct = HttpHeaderValues.APPLICATION_OCTET_STREAM.toString();
+            } else {
+                ct = HttpHeaderValues.APPLICATION_JSON.toString();
+            }
+        }
+        PayloadCodec.Encoder encoder = codecs.findEncoder(ct, payloadType);
+        if (encoder == null) {
+            throw ex.illegalArgumentNoCodec(ct, payloadType.getName());
+        }
+        return encoder;
+    }
+}
@@ -0,0 +1,55 @@
+package io.quarkiverse.solace.codecs;
+
+import java.lang.reflect.Type;
+
+import jakarta.enterprise.inject.spi.Prioritized;
+
+import com.solace.messaging.publisher.OutboundMessage;
+import com.solace.messaging.publisher.OutboundMessageBuilder;
+
+/**
+ * Decodes inbound payloads and encodes outbound payloads of a given content type.
+ * <p>
+ * Codecs are CDI beans. They are resolved once per channel, content type and Java type, the returned
+ * {@link Decoder} and {@link Encoder} are then cached and reused for every message.
+ * When several codecs handle the same content type, the one with the lowest priority wins.
+ */
+public interface PayloadCodec extends Prioritized {
+
+    int CODEC_DEFAULT_PRIORITY = 100;
+
+    /**
+     * @return the content type handled by this codec, matched ignoring case
+     */
+    String contentType();
+
+    /**
+     * @param target the type expected by the consumer, {@code Object} when unknown
+     * @return the decoder producing instances of {@code target}, or {@code null} if not supported
+     */
+    Decoder decoder(Type target);
+
+    /**
+     * @param payloadType the class of the outgoing payloads
+     * @return the encoder for payloads of {@code payloadType}, or {@code null} if not supported
+     */
+    Encoder encoder(Class<?> payloadType);
+
+    @Override
+    default int getPriority() {
+        return CODEC_DEFAULT_PRIORITY;
+    }
+
+    @FunctionalInterface
+    interface Decoder {
+        Object decode(byte[] payload);
+    }
+
+    @FunctionalInterface
+    interface Encoder {
+        /**
+         * Builds the outbound message, the encoder is responsible for setting the content type header.
+         */
+        OutboundMessage encode(OutboundMessageBuilder builder, Object payload);
+    }
+}
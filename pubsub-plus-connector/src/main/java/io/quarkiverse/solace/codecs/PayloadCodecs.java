@@ -0,0 +1,86 @@
+package io.quarkiverse.solace.codecs;
+
+import java.lang.reflect.Type;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Any;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+
+/**
+ * Registry of the {@link PayloadCodec} beans, sorted by priority.
+ */
+@ApplicationScoped
+public class PayloadCodecs {
+
+    @Inject
+    @Any
+    Instance<PayloadCodec> instances;
+
+    private List<PayloadCodec> codecs;
+
+    @PostConstruct
+    void init() {
+        this.codecs = instances.stream()
+                .sorted(Comparator.comparingInt(PayloadCodec::getPriority))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @param target the type expected by the consumer, {@code Object} when unknown
+     * @param defaultContentType the content type of messages not carrying one, may be {@code null}
+     * @return a decoder caching the codec resolution per content type
+     */
+    public InboundPayloadDecoder inbound(Type target, String defaultContentType) {
+        return new InboundPayloadDecoder(this, target, defaultContentType);
+    }
+
+    /**
+     * @param contentType the content type of outgoing payloads, {@code null} to select it from the payload type
+     * @return an encoder caching the codec resolution per payload type
+     */
+    public OutboundPayloadEncoder outbound(String contentType) {
+        return new OutboundPayloadEncoder(this, contentType);
+    }
+
+    List<String> contentTypes() {
+        return codecs.stream().map(PayloadCodec::contentType).distinct().collect(Collectors.toList());
+    }
+
+    PayloadCodec.Decoder findDecoder(String contentType, Type target) {
+        PayloadCodec.Decoder decoder = findDecoderFor(contentType, target);
+        if (decoder == null && target != Object.class) {
+            // Decode into the default type, for the framework converters to take over
+            return findDecoderFor(contentType, Object.class);
+        }
+        return decoder;
+    }
+
+    private PayloadCodec.Decoder findDecoderFor(String contentType, Type target) {
+        for (PayloadCodec codec : codecs) {
+            if (codec.contentType().equalsIgnoreCase(contentType)) {
+                PayloadCodec.Decoder decoder = codec.decoder(target);
+                if (decoder != null) {
+                    return decoder;
+                }
+            }
+        }
+        return null;
+    }
+
+    PayloadCodec.Encoder findEncoder(String contentType, Class<?> payloadType) {
+        for (PayloadCodec codec : codecs) {
+            if (codec.contentType().equalsIgnoreCase(contentType)) {
+                PayloadCodec.Encoder encoder = codec.encoder(payloadType);
+                if (encoder != null) {
+                    return encoder;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,32 @@
+package io.quarkiverse.solace.codecs;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import io.netty.handler.codec.http.HttpHeaderValues;
+
+@ApplicationScoped
+public class TextPayloadCodec implements PayloadCodec {
+
+    @Override
+    public String contentType() {
+        return HttpHeaderValues.TEXT_PLAIN.toString();
+    }
+
+    @Override
+    public Decoder decoder(Type target) {
+        if (target == Object.class || target == String.class) {
+            return bytes -> new String(bytes, StandardCharsets.UTF_8);
+        }
+        return null;
+    }
+
+    @Override
+    public Encoder encoder(Class<?> payloadType) {
+        String contentType = contentType();
+        return (builder, payload) -> builder.withHTTPContentHeader(contentType, "")
+                .build(payload.toString());
+    }
+}
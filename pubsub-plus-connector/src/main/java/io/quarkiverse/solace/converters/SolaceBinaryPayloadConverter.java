@@ -0,0 +1,39 @@
+package io.quarkiverse.solace.converters;
+
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+
+import io.netty.buffer.Unpooled;
+import io.quarkiverse.solace.SolaceInboundMetadata;
+import io.smallrye.reactive.messaging.MessageConverter;
+import io.vertx.core.buffer.Buffer;
+
+/**
+ * Gives access to the payload of inbound messages as a read-only {@link ByteBuffer} or a Vert.x {@link Buffer},
+ * both wrapping the payload bytes without copying them.
+ */
+@ApplicationScoped
+public class SolaceBinaryPayloadConverter implements MessageConverter {
+    @Override
+    public boolean canConvert(Message<?> in, Type target) {
+        return (target == ByteBuffer.class || target == Buffer.class)
+                && in.getMetadata(SolaceInboundMetadata.class).isPresent();
+    }
+
+    @Override
+    public Message<?> convert(Message<?> in, Type target) {
+        byte[] bytes = in.getMetadata(SolaceInboundMetadata.class)
+                .map(SolaceInboundMetadata::getPayloadAsBytes).orElse(null);
+        if (bytes == null) {
+            return in.withPayload(null);
+        }
+        if (target == ByteBuffer.class) {
+            return in.withPayload(ByteBuffer.wrap(bytes).asReadOnlyBuffer());
+        }
+        return in.withPayload(Buffer.buffer(Unpooled.wrappedBuffer(bytes)));
+    }
+}
@@ -1,6 +1,7 @@
 package io.quarkiverse.solace.i18n;
 
 import org.jboss.logging.Messages;
+import org.jboss.logging.annotations.Cause;
 import org.jboss.logging.annotations.Message;
 import org.jboss.logging.annotations.MessageBundle;
 
@@ -21,4 +22,49 @@ public interface SolaceExceptions {
     @Message(id = 18002, value = "Expecting downstream to consume without back-pressure")
     IllegalStateException illegalStateConsumeWithoutBackPressure();
 
+    @Message(id = 18003, value = "No payload codec found for content type %s and type %s")
+    IllegalArgumentException illegalArgumentNoCodec(String contentType, String type);
+
+    @Message(id = 18004, value = "Unable to load the payload type %s of channel %s")
+    IllegalArgumentException illegalArgumentUnknownPayloadType(String type, String channel, @Cause Throwable cause);
+
+    @Message(id = 18005, value = "Invalid ordering key `%s`, expected `application-message-id`, `partition-key`, `property:<name>` or `topic-level:<index>`")
+    IllegalArgumentException illegalArgumentOrderingKey(String source);
+
+    @Message(id = 18006, value = "Invalid duplicate detection key `%s`, expected `application-message-id` or `property:<name>`")
+    IllegalArgumentException illegalArgumentDuplicateKey(String source);
+
+    @Message(id = 18007, value = "No partition key extractor found with identifier %s for channel %s")
+    IllegalArgumentException illegalArgumentNoPartitionKeyExtractor(String identifier, String channel);
+
+    @Message(id = 18008, value = "Invalid failure strategy `%s` for channel %s, expected `nack`, `ignore`, `fail` or `dead-letter`")
+    IllegalArgumentException illegalArgumentFailureStrategy(String strategy, String channel);
+
+    @Message(id = 18009, value = "Unable to load the exception class %s of channel %s")
+    IllegalArgumentException illegalArgumentUnknownExceptionClass(String type, String channel, @Cause Throwable cause);
+
+    @Message(id = 18010, value = "Channel %s uses the shared receiver %s, which does not support `%s`")
+    IllegalArgumentException illegalArgumentSharedReceiver(String channel, String sharedReceiver, String attribute);
+
+    @Message(id = 18011, value = "No channel of the shared receiver %s subscribes to the topic '%s'")
+    IllegalStateException illegalStateNoRoute(String sharedReceiver, String topic);
+
+    @Message(id = 18012, value = "Channel %s is closed")
+    IllegalStateException illegalStateChannelClosed(String channel);
+
+    @Message(id = 18013, value = "No incoming channel %s found for connector %s")
+    IllegalArgumentException illegalArgumentUnknownChannel(String channel, String connector);
+
+    @Message(id = 18014, value = "Invalid `%s` value '%s' for channel %s")
+    IllegalArgumentException illegalArgumentFilter(String attribute, String value, String channel);
+
+    @Message(id = 18015, value = "Channel %s checkpoints its replay, which does not support `%s`")
+    IllegalArgumentException illegalArgumentReplayCheckpoint(String channel, String attribute);
+
+    @Message(id = 18016, value = "Unable to open the replay checkpoint file %s of channel %s")
+    IllegalStateException illegalStateCheckpointFile(String path, String channel, @Cause Throwable cause);
+
+    @Message(id = 18017, value = "Channel %s consumes the queue with %d receivers, which requires a `durable-non-exclusive` queue, not `%s`")
+    IllegalArgumentException illegalArgumentConcurrentQueueType(String channel, int concurrency, String queueType);
+
 }
@@ -2,6 +2,7 @@ package io.quarkiverse.solace.i18n;
 
 import org.jboss.logging.BasicLogger;
 import org.jboss.logging.Logger;
+import org.jboss.logging.annotations.Cause;
 import org.jboss.logging.annotations.LogMessage;
 import org.jboss.logging.annotations.Message;
 import org.jboss.logging.annotations.MessageLogger;
@@ -28,4 +29,84 @@ public interface SolaceLogging extends BasicLogger {
     @LogMessage(level = Logger.Level.ERROR)
     @Message(id = 55202, value = "A message sent to channel `%s` has been nacked, outcome: %s")
     void messageNacked(String channel, String outcome);
+
+    @LogMessage(level = Logger.Level.WARN)
+    @Message(id = 55203, value = "Virtual threads are not available on this JVM, channel `%s` polls messages from a platform thread")
+    void virtualThreadsUnavailable(String channel);
+
+    @LogMessage(level = Logger.Level.ERROR)
+    @Message(id = 55204, value = "A message sent to channel `%s` could not be published to topic '%s'")
+    void directPublishFailed(String channel, String topic, @Cause Throwable cause);
+
+    @LogMessage(level = Logger.Level.DEBUG)
+    @Message(id = 55205, value = "Duplicate message skipped on channel `%s`, redelivered: %s")
+    void duplicateMessageSkipped(String channel, boolean redelivered);
+
+    @LogMessage(level = Logger.Level.WARN)
+    @Message(id = 55206, value = "A message received on channel `%s` has been nacked, retrying in %d ms (retry %d of %d)")
+    void messageRetried(String channel, long delay, int retry, int maxRetries);
+
+    @LogMessage(level = Logger.Level.WARN)
+    @Message(id = 55207, value = "A message received on channel `%s` has been nacked, ignoring the failure")
+    void messageIgnored(String channel, @Cause Throwable reason);
+
+    @LogMessage(level = Logger.Level.WARN)
+    @Message(id = 55208, value = "A message received on channel `%s` has been nacked, sending it to the dead-letter topic '%s'")
+    void messageDeadLettered(String channel, String topic, @Cause Throwable reason);
+
+    @LogMessage(level = Logger.Level.ERROR)
+    @Message(id = 55209, value = "Unable to send a message received on channel `%s` to the dead-letter topic '%s'")
+    void deadLetterFailed(String channel, String topic, @Cause Throwable cause);
+
+    @LogMessage(level = Logger.Level.WARN)
+    @Message(id = 55210, value = "Channel `%s` has not been drained in time, %d message(s) in flight have been abandoned")
+    void messagesAbandoned(String channel, long count);
+
+    @LogMessage(level = Logger.Level.WARN)
+    @Message(id = 55211, value = "Unable to terminate channel `%s`")
+    void unableToTerminate(String channel, @Cause Throwable cause);
+
+    @LogMessage(level = Logger.Level.INFO)
+    @Message(id = 55212, value = "Receiver of channel `%s` is now %s")
+    void receiverStateChanged(String channel, String state);
+
+    @LogMessage(level = Logger.Level.DEBUG)
+    @Message(id = 55213, value = "Channel `%s` dispatched its first message %d ms after becoming active")
+    void firstMessageAfterActivation(String channel, long duration);
+
+    @LogMessage(level = Logger.Level.WARN)
+    @Message(id = 55214, value = "No channel of the shared receiver `%s` subscribes to the topic '%s', its messages are nacked with the failure strategy of the receiver channel")
+    void messageNotRouted(String sharedReceiver, String topic);
+
+    @LogMessage(level = Logger.Level.DEBUG)
+    @Message(id = 55215, value = "Applying %d subscription change(s) to the receivers of channel `%s`")
+    void subscriptionsChanged(int count, String channel);
+
+    @LogMessage(level = Logger.Level.WARN)
+    @Message(id = 55216, value = "Ignoring the invalid replay checkpoint of channel `%s` in %s")
+    void invalidCheckpoint(String channel, String path, @Cause Throwable cause);
+
+    @LogMessage(level = Logger.Level.WARN)
+    @Message(id = 55217, value = "Unable to write the replay checkpoint of channel `%s` to %s")
+    void checkpointNotWritten(String channel, String path, @Cause Throwable cause);
+
+    @LogMessage(level = Logger.Level.INFO)
+    @Message(id = 55218, value = "Channel `%s` resumes its replay after the checkpoint '%s'")
+    void replayResumed(String channel, String checkpoint);
+
+    @LogMessage(level = Logger.Level.WARN)
+    @Message(id = 55219, value = "Channel `%s` does not keep up with its direct receiver, messages are dropped while %d messages wait for the application")
+    void messagesDropped(String channel, int capacity);
+
+    @LogMessage(level = Logger.Level.WARN)
+    @Message(id = 55220, value = "Channel `%s` moves its replay checkpoint past the message '%s', failed %d ms ago and not redelivered since")
+    void checkpointFailedMessageSkipped(String channel, String id, long duration);
+
+    @LogMessage(level = Logger.Level.WARN)
+    @Message(id = 55221, value = "Unable to decode a payload with content type '%s' into %s, falling back to byte[]")
+    void payloadNotDecoded(String contentType, String target, @Cause Throwable cause);
+
+    @LogMessage(level = Logger.Level.DEBUG)
+    @Message(id = 55222, value = "No channel of the shared receiver `%s` subscribes to the topic '%s', the message is nacked")
+    void messageNotRoutedAgain(String sharedReceiver, String topic);
 }
@@ -0,0 +1,106 @@
+package io.quarkiverse.solace;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.solace.messaging.MessagingService;
+
+import io.smallrye.reactive.messaging.health.HealthReport;
+
+class ChannelHealthTest {
+
+    private final MessagingService solace = mock(MessagingService.class);
+
+    @Test
+    void joinedChannels() {
+        ChannelHealth health = new ChannelHealth("orders", solace, true, 0, () -> 0, () -> 0);
+        health.join("all");
+
+        HealthReport startup = startup(health);
+        assertThat(startup.isOk()).isFalse();
+        assertThat(startup.getChannels()).extracting(HealthReport.ChannelInfo::getChannel)
+                .containsExactly("orders", "all");
+
+        health.started();
+        assertThat(startup(health).isOk()).isTrue();
+        assertThat(readiness(health).getChannels()).hasSize(2).allMatch(HealthReport.ChannelInfo::isOk);
+
+        health.failed(new IllegalStateException("boom"));
+        assertThat(liveness(health).getChannels()).hasSize(2)
+                .allMatch(info -> !info.isOk() && info.getMessage().contains("boom"));
+    }
+
+    @Test
+    void disabled() {
+        ChannelHealth health = new ChannelHealth("in", solace, false, 0, () -> 0, () -> 0);
+        health.started();
+
+        assertThat(readiness(health).getChannels()).isEmpty();
+    }
+
+    @Test
+    void backPressured() {
+        ChannelHealth health = new ChannelHealth("out", solace, true, 0, () -> 0, () -> 0);
+        health.started();
+
+        health.backPressured();
+        assertThat(readiness(health).getChannels()).singleElement()
+                .satisfies(info -> assertThat(info.getMessage()).isEqualTo("back-pressured"));
+
+        // Notified by the publisher
+        health.ready();
+        assertThat(readiness(health).isOk()).isTrue();
+    }
+
+    @Test
+    void stalledWithoutPublishReceipt() throws Exception {
+        AtomicLong pending = new AtomicLong();
+        AtomicLong receipts = new AtomicLong();
+        ChannelHealth health = new ChannelHealth("out", solace, true, 100, pending::get, receipts::get);
+        health.started();
+        assertThat(readiness(health).isOk()).isTrue();
+
+        // Messages held by the publisher, as with the wait or elastic back-pressure strategies
+        pending.set(2);
+        assertThat(readiness(health).isOk()).isTrue();
+        Thread.sleep(200);
+        assertThat(readiness(health).getChannels()).singleElement()
+                .satisfies(info -> assertThat(info.getMessage()).isEqualTo("stalled"));
+
+        // Any publish receipt is progress
+        receipts.incrementAndGet();
+        assertThat(readiness(health).isOk()).isTrue();
+    }
+
+    @Test
+    void notStalledWithoutMessagesInFlight() throws Exception {
+        ChannelHealth health = new ChannelHealth("in", solace, true, 100, () -> 0, () -> 0);
+        health.started();
+        readiness(health);
+
+        Thread.sleep(200);
+        assertThat(readiness(health).isOk()).isTrue();
+    }
+
+    private static HealthReport startup(ChannelHealth health) {
+        HealthReport.HealthReportBuilder builder = HealthReport.builder();
+        health.isStarted(builder);
+        return builder.build();
+    }
+
+    private static HealthReport readiness(ChannelHealth health) {
+        HealthReport.HealthReportBuilder builder = HealthReport.builder();
+        health.isReady(builder);
+        return builder.build();
+    }
+
+    private static HealthReport liveness(ChannelHealth health) {
+        HealthReport.HealthReportBuilder builder = HealthReport.builder();
+        health.isAlive(builder);
+        return builder.build();
+    }
+}
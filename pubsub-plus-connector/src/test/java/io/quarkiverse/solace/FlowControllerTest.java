@@ -0,0 +1,139 @@
+package io.quarkiverse.solace;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.solace.messaging.receiver.ReceiverFlowControl;
+
+class FlowControllerTest {
+
+    private final ReceiverFlowControl receiver = mock(ReceiverFlowControl.class);
+
+    @Test
+    void pauseAtHighWatermarkAndResumeAtLowWatermark() {
+        FlowController flowController = new FlowController(receiver, 3, 1, 0);
+
+        flowController.received();
+        flowController.received();
+        verify(receiver, never()).pause();
+
+        flowController.received();
+        verify(receiver).pause();
+        assertThat(flowController.isPaused()).isTrue();
+
+        // Already paused
+        flowController.received();
+        verify(receiver, times(1)).pause();
+        assertThat(flowController.getUnsettled()).isEqualTo(4);
+
+        flowController.settled();
+        flowController.settled();
+        verify(receiver, never()).resume();
+
+        flowController.settled();
+        verify(receiver).resume();
+        assertThat(flowController.isPaused()).isFalse();
+        assertThat(flowController.getUnsettled()).isEqualTo(1);
+    }
+
+    @Test
+    void lowWatermarkBelowHighWatermark() {
+        FlowController flowController = new FlowController(receiver, 2, 5, 0);
+
+        flowController.received();
+        flowController.received();
+        verify(receiver).pause();
+
+        // Resumes below the high watermark, whatever the configured low watermark
+        flowController.settled();
+        verify(receiver).resume();
+    }
+
+    @Test
+    void acquireBlocksAtMaxUnsettled() throws Exception {
+        FlowController flowController = new FlowController(receiver, Long.MAX_VALUE, Long.MAX_VALUE, 2);
+        flowController.acquire();
+        flowController.received();
+        flowController.acquire();
+        flowController.received();
+
+        // Blocks until a message is settled
+        CompletableFuture<Void> acquired = CompletableFuture.runAsync(flowController::acquire);
+        Thread.sleep(100);
+        assertThat(acquired).isNotDone();
+
+        flowController.settled();
+        acquired.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void releaseWithoutMessage() throws Exception {
+        FlowController flowController = new FlowController(receiver, Long.MAX_VALUE, Long.MAX_VALUE, 1);
+
+        // Polled without receiving a message
+        flowController.acquire();
+        flowController.release();
+
+        CompletableFuture.runAsync(flowController::acquire).get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void closeUnblocksAcquire() throws Exception {
+        FlowController flowController = new FlowController(receiver, Long.MAX_VALUE, Long.MAX_VALUE, 1);
+        flowController.acquire();
+        flowController.received();
+
+        CompletableFuture<Void> acquired = CompletableFuture.runAsync(flowController::acquire);
+        Thread.sleep(100);
+        assertThat(acquired).isNotDone();
+
+        flowController.close();
+        acquired.get(5, TimeUnit.SECONDS);
+        // No longer bounded
+        CompletableFuture.runAsync(flowController::acquire).get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void drainPausesForGood() {
+        FlowController flowController = new FlowController(receiver, 3, 1, 0);
+        flowController.received();
+        flowController.received();
+
+        CompletableFuture<Void> drained = flowController.drain();
+        verify(receiver).pause();
+        assertThat(drained).isNotDone();
+
+        flowController.settled();
+        flowController.settled();
+        assertThat(drained).isDone();
+        verify(receiver, never()).resume();
+    }
+
+    @Test
+    void pauseWhileBacklogged() {
+        FlowController flowController = new FlowController(receiver, 3, 1, 0);
+
+        flowController.backlogged(true);
+        verify(receiver).pause();
+
+        // Still over the high watermark once the backlog is drained
+        flowController.received();
+        flowController.received();
+        flowController.received();
+        flowController.backlogged(false);
+        verify(receiver, never()).resume();
+
+        flowController.settled();
+        flowController.settled();
+        verify(receiver).resume();
+        assertThat(flowController.isPaused()).isFalse();
+    }
+}
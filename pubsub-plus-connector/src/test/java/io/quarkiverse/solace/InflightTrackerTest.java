@@ -0,0 +1,38 @@
+package io.quarkiverse.solace;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+class InflightTrackerTest {
+
+    @Test
+    void count() {
+        InflightTracker tracker = new InflightTracker();
+
+        assertThat(tracker.increment()).isEqualTo(1);
+        assertThat(tracker.increment()).isEqualTo(2);
+        assertThat(tracker.decrement()).isEqualTo(1);
+        assertThat(tracker.get()).isEqualTo(1);
+    }
+
+    @Test
+    void drainedOnceNoneInFlight() {
+        InflightTracker tracker = new InflightTracker();
+        tracker.increment();
+        tracker.increment();
+
+        CompletableFuture<Void> drained = tracker.whenDrained();
+        tracker.decrement();
+        assertThat(drained).isNotDone();
+        tracker.decrement();
+        assertThat(drained).isDone();
+    }
+
+    @Test
+    void drainedWhenNoneInFlight() {
+        assertThat(new InflightTracker().whenDrained()).isDone();
+    }
+}
@@ -0,0 +1,83 @@
+package io.quarkiverse.solace;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.Test;
+
+import com.solace.messaging.receiver.InboundMessage;
+
+class OrderingKeyTest {
+
+    @Test
+    void applicationMessageId() {
+        InboundMessage message = mock(InboundMessage.class);
+        when(message.getApplicationMessageId()).thenReturn("order-1");
+
+        assertThat(OrderingKey.of("application-message-id").hash(message)).isEqualTo("order-1".hashCode());
+    }
+
+    @Test
+    void partitionKey() {
+        InboundMessage message = mock(InboundMessage.class);
+        when(message.getProperty(SolaceOutboundMetadata.PARTITION_KEY_PROPERTY)).thenReturn("customer-1");
+
+        assertThat(OrderingKey.of("partition-key").hash(message)).isEqualTo("customer-1".hashCode());
+    }
+
+    @Test
+    void property() {
+        InboundMessage message = mock(InboundMessage.class);
+        when(message.getProperty("account")).thenReturn("acc-1");
+
+        assertThat(OrderingKey.of("property:account").hash(message)).isEqualTo("acc-1".hashCode());
+    }
+
+    @Test
+    void topicLevel() {
+        InboundMessage message = mock(InboundMessage.class);
+        when(message.getDestinationName()).thenReturn("orders/eu/created");
+
+        assertThat(OrderingKey.of("topic-level:0").hash(message)).isEqualTo("orders".hashCode());
+        assertThat(OrderingKey.of("topic-level:1").hash(message)).isEqualTo("eu".hashCode());
+        assertThat(OrderingKey.of("topic-level:2").hash(message)).isEqualTo("created".hashCode());
+        // Beyond the last level
+        assertThat(OrderingKey.of("topic-level:3").hash(message)).isZero();
+    }
+
+    @Test
+    void missingKey() {
+        InboundMessage message = mock(InboundMessage.class);
+
+        assertThat(OrderingKey.of("application-message-id").hash(message)).isZero();
+        assertThat(OrderingKey.of("partition-key").hash(message)).isZero();
+        assertThat(OrderingKey.of("property:account").hash(message)).isZero();
+        assertThat(OrderingKey.of("topic-level:1").hash(message)).isZero();
+    }
+
+    @Test
+    void invalidSource() {
+        assertThatThrownBy(() -> OrderingKey.of("payload")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> OrderingKey.of("topic-level:first")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void laneSpread() {
+        int lanes = 16;
+        int keys = 16_000;
+        int[] counts = new int[lanes];
+        for (int i = 0; i < keys; i++) {
+            int lane = OrderingKey.lane(("customer-" + i).hashCode(), lanes);
+            assertThat(lane).isBetween(0, lanes - 1);
+            counts[lane]++;
+        }
+        // Each lane gets close to its share of keys
+        for (int count : counts) {
+            assertThat(count).isBetween(keys / lanes / 2, keys / lanes * 2);
+        }
+        // Negative hashes map to a lane too
+        assertThat(OrderingKey.lane(Integer.MIN_VALUE, lanes)).isBetween(0, lanes - 1);
+    }
+}
@@ -0,0 +1,196 @@
+package io.quarkiverse.solace;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.solace.messaging.receiver.InboundMessage;
+import com.solace.messaging.receiver.MessageReceiver;
+import com.solace.messaging.receiver.ReceiverFlowControl;
+
+import io.vertx.mutiny.core.Vertx;
+
+class ReceiverPublisherTest {
+
+    private Vertx vertx;
+    private final AtomicReference<MessageReceiver.MessageHandler> handler = new AtomicReference<>();
+
+    @BeforeEach
+    void init() {
+        vertx = Vertx.vertx();
+    }
+
+    @AfterEach
+    void close() {
+        vertx.closeAndAwait();
+    }
+
+    @Test
+    void pauseWithoutBlockingWhenFull() throws Exception {
+        ReceiverFlowControl receiver = mock(ReceiverFlowControl.class);
+        ReceiverPublisher publisher = publisher(4, ReceiverPublisher.Overflow.PAUSE,
+                new FlowController(receiver, Long.MAX_VALUE, Long.MAX_VALUE, 0));
+        TestSubscriber subscriber = subscribe(publisher, 1);
+
+        // The dispatch thread never waits for the application
+        CompletableFuture.runAsync(() -> {
+            for (int i = 0; i < 10; i++) {
+                handler.get().onMessage(mock(InboundMessage.class));
+            }
+        }).get(5, TimeUnit.SECONDS);
+        await().until(() -> subscriber.items.size() == 1);
+        verify(receiver).pause();
+
+        // Resumed once half of the queue is drained
+        subscriber.request(6);
+        await().until(() -> subscriber.items.size() == 7);
+        verify(receiver, never()).resume();
+        subscriber.request(1);
+        await().untilAsserted(() -> verify(receiver).resume());
+        assertThat(publisher.getDropped()).isZero();
+    }
+
+    @Test
+    void dropLatest() {
+        ReceiverPublisher publisher = publisher(2, ReceiverPublisher.Overflow.DROP_LATEST, null);
+        TestSubscriber subscriber = subscribeWithoutDemand(publisher);
+
+        InboundMessage m1 = mock(InboundMessage.class);
+        InboundMessage m2 = mock(InboundMessage.class);
+        receive(m1, m2, mock(InboundMessage.class), mock(InboundMessage.class));
+        assertThat(publisher.getDropped()).isEqualTo(2);
+
+        subscriber.request(Long.MAX_VALUE);
+        await().until(() -> subscriber.items.size() == 3);
+        assertThat(subscriber.items).endsWith(m1, m2);
+    }
+
+    @Test
+    void dropOldest() {
+        ReceiverPublisher publisher = publisher(2, ReceiverPublisher.Overflow.DROP_OLDEST, null);
+        TestSubscriber subscriber = subscribeWithoutDemand(publisher);
+
+        InboundMessage m3 = mock(InboundMessage.class);
+        InboundMessage m4 = mock(InboundMessage.class);
+        receive(mock(InboundMessage.class), mock(InboundMessage.class), m3, m4);
+        assertThat(publisher.getDropped()).isEqualTo(2);
+
+        subscriber.request(Long.MAX_VALUE);
+        await().until(() -> subscriber.items.size() == 3);
+        assertThat(subscriber.items).endsWith(m3, m4);
+    }
+
+    @Test
+    void bufferKeepsEveryMessage() {
+        ReceiverPublisher publisher = publisher(2, ReceiverPublisher.Overflow.BUFFER, null);
+        TestSubscriber subscriber = subscribe(publisher, 1);
+        await().until(() -> handler.get() != null);
+
+        for (int i = 0; i < 10; i++) {
+            handler.get().onMessage(mock(InboundMessage.class));
+        }
+        subscriber.request(Long.MAX_VALUE);
+
+        await().until(() -> subscriber.items.size() == 10);
+        assertThat(publisher.getDropped()).isZero();
+    }
+
+    @Test
+    void completeOnClose() {
+        ReceiverPublisher publisher = publisher(2, ReceiverPublisher.Overflow.BUFFER, null);
+        TestSubscriber subscriber = subscribe(publisher, 1);
+        await().until(() -> handler.get() != null);
+
+        publisher.complete();
+        await().untilTrue(subscriber.completed);
+
+        // Messages delivered after the close are ignored
+        handler.get().onMessage(mock(InboundMessage.class));
+        subscriber.request(1);
+        assertThat(subscriber.items).isEmpty();
+    }
+
+    @Test
+    void completeBeforeSubscription() {
+        ReceiverPublisher publisher = publisher(2, ReceiverPublisher.Overflow.BUFFER, null);
+        publisher.complete();
+
+        TestSubscriber subscriber = subscribe(publisher, 0);
+        await().untilTrue(subscriber.completed);
+    }
+
+    private ReceiverPublisher publisher(int capacity, ReceiverPublisher.Overflow overflow,
+            FlowController flowController) {
+        return new ReceiverPublisher("in", vertx.getOrCreateContext(), handler::set, capacity, overflow,
+                flowController);
+    }
+
+    private void receive(InboundMessage... messages) {
+        for (InboundMessage message : messages) {
+            handler.get().onMessage(message);
+        }
+    }
+
+    /**
+     * Registers the handler and consumes a first message, so the following ones stay queued.
+     */
+    private TestSubscriber subscribeWithoutDemand(ReceiverPublisher publisher) {
+        TestSubscriber subscriber = subscribe(publisher, 1);
+        receive(mock(InboundMessage.class));
+        await().until(() -> subscriber.items.size() == 1);
+        return subscriber;
+    }
+
+    private static TestSubscriber subscribe(ReceiverPublisher publisher, long initialRequest) {
+        TestSubscriber subscriber = new TestSubscriber();
+        publisher.subscribe(subscriber);
+        if (initialRequest > 0) {
+            subscriber.request(initialRequest);
+        }
+        return subscriber;
+    }
+
+    private static class TestSubscriber implements Flow.Subscriber<InboundMessage> {
+
+        private final List<InboundMessage> items = new CopyOnWriteArrayList<>();
+        private final AtomicBoolean completed = new AtomicBoolean();
+        private volatile Flow.Subscription subscription;
+
+        void request(long n) {
+            subscription.request(n);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(InboundMessage item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+            completed.set(true);
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package io.quarkiverse.solace;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.solace.messaging.receiver.InboundMessage;
+import com.solace.messaging.receiver.InboundMessage.ReplicationGroupMessageId;
+
+class ReplayCheckpointTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void noCheckpoint() {
+        ReplayCheckpoint checkpoint = open(60_000);
+
+        assertThat(checkpoint.getRestored()).isNull();
+        assertThat(checkpoint.getLatest()).isNull();
+        checkpoint.close();
+    }
+
+    @Test
+    void advanceOverContiguousMessages() {
+        ReplayCheckpoint checkpoint = open(60_000);
+        InboundMessage m1 = message(1, false);
+        InboundMessage m2 = message(2, false);
+        InboundMessage m3 = message(3, false);
+        checkpoint.received(m1);
+        checkpoint.received(m2);
+        checkpoint.received(m3);
+
+        // Held by the first message
+        checkpoint.settled(m2, true);
+        assertThat(checkpoint.getLatest()).isNull();
+
+        checkpoint.settled(m1, true);
+        assertThat(checkpoint.getLatest().toString()).isEqualTo(id(2));
+
+        checkpoint.settled(m3, true);
+        assertThat(checkpoint.getLatest().toString()).isEqualTo(id(3));
+        checkpoint.close();
+    }
+
+    @Test
+    void failedMessageHoldsUntilRedelivered() {
+        ReplayCheckpoint checkpoint = open(60_000);
+        InboundMessage m1 = message(1, false);
+        InboundMessage m2 = message(2, false);
+        checkpoint.received(m1);
+        checkpoint.received(m2);
+
+        // Settled as failed, to be redelivered by the broker
+        checkpoint.settled(m1, false);
+        checkpoint.settled(m2, true);
+        assertThat(checkpoint.getLatest()).isNull();
+
+        // The redelivery takes the place of the first delivery
+        InboundMessage redelivered = message(1, true);
+        checkpoint.received(redelivered);
+        checkpoint.settled(m1, true);
+        assertThat(checkpoint.getLatest()).isNull();
+
+        checkpoint.settled(redelivered, true);
+        assertThat(checkpoint.getLatest().toString()).isEqualTo(id(2));
+        checkpoint.close();
+    }
+
+    @Test
+    void failedMessageNotRedeliveredInTime() throws Exception {
+        ReplayCheckpoint checkpoint = open(60_000, 100);
+        InboundMessage m1 = message(1, false);
+        InboundMessage m2 = message(2, false);
+        InboundMessage m3 = message(3, false);
+        checkpoint.received(m1);
+        checkpoint.received(m2);
+        checkpoint.received(m3);
+
+        // Settled as failed, and moved to the dead message queue by the broker instead of being redelivered
+        checkpoint.settled(m1, false);
+        checkpoint.settled(m2, true);
+        assertThat(checkpoint.getLatest()).isNull();
+
+        Thread.sleep(200);
+        checkpoint.settled(m3, true);
+        assertThat(checkpoint.getLatest().toString()).isEqualTo(id(3));
+
+        // A late redelivery is tracked as a new message
+        InboundMessage redelivered = message(1, true);
+        checkpoint.received(redelivered);
+        InboundMessage m4 = message(4, false);
+        checkpoint.received(m4);
+        checkpoint.settled(m4, true);
+        assertThat(checkpoint.getLatest().toString()).isEqualTo(id(3));
+        checkpoint.settled(redelivered, true);
+        assertThat(checkpoint.getLatest().toString()).isEqualTo(id(4));
+        checkpoint.close();
+    }
+
+    @Test
+    void failedMessageSkippedByPeriodicWrite() throws Exception {
+        ReplayCheckpoint checkpoint = open(50, 100);
+        InboundMessage m1 = message(1, false);
+        InboundMessage m2 = message(2, false);
+        checkpoint.received(m1);
+        checkpoint.received(m2);
+        checkpoint.settled(m2, true);
+        checkpoint.settled(m1, false);
+
+        // No further settlement needed
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (checkpoint.getLatest() == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(checkpoint.getLatest().toString()).isEqualTo(id(2));
+        checkpoint.close();
+    }
+
+    @Test
+    void messageWithoutId() {
+        ReplayCheckpoint checkpoint = open(60_000);
+        InboundMessage untracked = mock(InboundMessage.class);
+        InboundMessage m1 = message(1, false);
+        checkpoint.received(untracked);
+        checkpoint.received(m1);
+
+        // Never holds the checkpoint
+        checkpoint.settled(m1, true);
+        checkpoint.settled(untracked, true);
+        assertThat(checkpoint.getLatest().toString()).isEqualTo(id(1));
+        checkpoint.close();
+    }
+
+    @Test
+    void restoreOnOpen() {
+        ReplayCheckpoint checkpoint = open(60_000);
+        InboundMessage m1 = message(1, false);
+        checkpoint.received(m1);
+        checkpoint.settled(m1, true);
+        checkpoint.close();
+
+        ReplayCheckpoint restored = open(60_000);
+        assertThat(restored.getRestored().toString()).isEqualTo(id(1));
+        restored.close();
+    }
+
+    @Test
+    void writePeriodically() throws Exception {
+        ReplayCheckpoint checkpoint = open(50);
+        InboundMessage m1 = message(1, false);
+        checkpoint.received(m1);
+        checkpoint.settled(m1, true);
+
+        // Written without closing
+        long deadline = System.currentTimeMillis() + 5_000;
+        String restored = null;
+        while (restored == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            ReplayCheckpoint reader = open(60_000);
+            restored = reader.getRestored() == null ? null : reader.getRestored().toString();
+            reader.close();
+        }
+        assertThat(restored).isEqualTo(id(1));
+        checkpoint.close();
+    }
+
+    @Test
+    void restoreHighestSequenceAndSkipTornSlot() throws Exception {
+        // First write, sequence 1 in the second slot
+        ReplayCheckpoint first = open(60_000);
+        InboundMessage m1 = message(1, false);
+        first.received(m1);
+        first.settled(m1, true);
+        first.close();
+
+        // Second write, sequence 2 in the first slot
+        ReplayCheckpoint second = open(60_000);
+        assertThat(second.getRestored().toString()).isEqualTo(id(1));
+        InboundMessage m2 = message(2, false);
+        second.received(m2);
+        second.settled(m2, true);
+        second.close();
+
+        ReplayCheckpoint restored = open(60_000);
+        assertThat(restored.getRestored().toString()).isEqualTo(id(2));
+        restored.close();
+
+        // Tear the second write, its checksum no longer matches
+        try (RandomAccessFile file = new RandomAccessFile(path().toFile(), "rw")) {
+            file.seek(16);
+            file.write('x');
+        }
+        ReplayCheckpoint torn = open(60_000);
+        assertThat(torn.getRestored().toString()).isEqualTo(id(1));
+        torn.close();
+    }
+
+    @Test
+    void ignoreInvalidFile() throws Exception {
+        try (RandomAccessFile file = new RandomAccessFile(path().toFile(), "rw")) {
+            for (int i = 0; i < 512; i++) {
+                file.write(i);
+            }
+        }
+
+        ReplayCheckpoint checkpoint = open(60_000);
+        assertThat(checkpoint.getRestored()).isNull();
+        checkpoint.close();
+    }
+
+    private ReplayCheckpoint open(long interval) {
+        return open(interval, 60_000);
+    }
+
+    private ReplayCheckpoint open(long interval, long failedTimeout) {
+        return new ReplayCheckpoint("in", path().toString(), interval, true, failedTimeout);
+    }
+
+    private Path path() {
+        return dir.resolve("in.checkpoint");
+    }
+
+    private static String id(int index) {
+        return String.format("rmid1:0d77c-b5b1c2ee0b7-00000000-%08x", index);
+    }
+
+    private static InboundMessage message(int index, boolean redelivered) {
+        InboundMessage message = mock(InboundMessage.class);
+        ReplicationGroupMessageId id = ReplicationGroupMessageId.of(id(index));
+        when(message.getReplicationGroupMessageId()).thenReturn(id);
+        when(message.isRedelivered()).thenReturn(redelivered);
+        return message;
+    }
+}
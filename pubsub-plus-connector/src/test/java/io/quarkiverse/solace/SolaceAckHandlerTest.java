@@ -0,0 +1,103 @@
+package io.quarkiverse.solace;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.solace.messaging.receiver.AcknowledgementSupport;
+import com.solace.messaging.receiver.InboundMessage;
+
+import io.vertx.mutiny.core.Vertx;
+
+class SolaceAckHandlerTest {
+
+    private Vertx vertx;
+    private AcknowledgementSupport receiver;
+
+    @BeforeEach
+    void init() {
+        vertx = Vertx.vertx();
+        receiver = mock(AcknowledgementSupport.class);
+    }
+
+    @AfterEach
+    void close() {
+        vertx.closeAndAwait();
+    }
+
+    @Test
+    void ackWithoutCoalescing() {
+        SolaceAckHandler handler = new SolaceAckHandler(receiver, null, null, null);
+        InboundMessage message = mock(InboundMessage.class);
+
+        assertThat(handler.handle(message).toCompletableFuture()).isDone();
+        verify(receiver).ack(message);
+    }
+
+    @Test
+    void flushAtMaxSize() throws Exception {
+        SolaceAckHandler handler = new SolaceAckHandler(receiver, null, null, null, vertx.getOrCreateContext(), 3,
+                60_000);
+        InboundMessage m1 = mock(InboundMessage.class);
+        InboundMessage m2 = mock(InboundMessage.class);
+        InboundMessage m3 = mock(InboundMessage.class);
+
+        CompletableFuture<Void> a1 = handler.handle(m1).toCompletableFuture();
+        CompletableFuture<Void> a2 = handler.handle(m2).toCompletableFuture();
+        // Pending until the max size is reached
+        assertThat(a1).isNotDone();
+        assertThat(a2).isNotDone();
+        verify(receiver, never()).ack(m1);
+
+        CompletableFuture<Void> a3 = handler.handle(m3).toCompletableFuture();
+        CompletableFuture.allOf(a1, a2, a3).get(5, TimeUnit.SECONDS);
+        verify(receiver).ack(m1);
+        verify(receiver).ack(m2);
+        verify(receiver).ack(m3);
+    }
+
+    @Test
+    void flushAfterInterval() throws Exception {
+        SolaceAckHandler handler = new SolaceAckHandler(receiver, null, null, null, vertx.getOrCreateContext(), 64,
+                200);
+        InboundMessage m1 = mock(InboundMessage.class);
+        InboundMessage m2 = mock(InboundMessage.class);
+
+        long start = System.nanoTime();
+        CompletableFuture<Void> a1 = handler.handle(m1).toCompletableFuture();
+        CompletableFuture<Void> a2 = handler.handle(m2).toCompletableFuture();
+        assertThat(a1).isNotDone();
+
+        // The partial batch is flushed once the interval elapsed
+        CompletableFuture.allOf(a1, a2).get(5, TimeUnit.SECONDS);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(200);
+        verify(receiver).ack(m1);
+        verify(receiver).ack(m2);
+    }
+
+    @Test
+    void flushOnClose() {
+        SolaceAckHandler handler = new SolaceAckHandler(receiver, null, null, null, vertx.getOrCreateContext(), 64,
+                60_000);
+        InboundMessage m1 = mock(InboundMessage.class);
+        InboundMessage m2 = mock(InboundMessage.class);
+
+        CompletableFuture<Void> a1 = handler.handle(m1).toCompletableFuture();
+        CompletableFuture<Void> a2 = handler.handle(m2).toCompletableFuture();
+
+        // As called by the channel before terminating the receivers
+        handler.flush();
+        assertThat(a1).isDone();
+        assertThat(a2).isDone();
+        verify(receiver).ack(m1);
+        verify(receiver).ack(m2);
+    }
+}
@@ -0,0 +1,305 @@
+package io.quarkiverse.solace;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Outgoing;
+import org.junit.jupiter.api.Test;
+
+import com.solace.messaging.publisher.PersistentMessagePublisher;
+import com.solace.messaging.receiver.InboundMessage;
+import com.solace.messaging.receiver.PersistentMessageReceiver;
+import com.solace.messaging.resources.Queue;
+import com.solace.messaging.resources.Topic;
+import com.solace.messaging.resources.TopicSubscription;
+
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.quarkiverse.solace.base.WeldTestBase;
+import io.quarkiverse.solace.codecs.PayloadCodec;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.reactive.messaging.test.common.config.MapBasedConfig;
+
+public class SolaceCodecTest extends WeldTestBase {
+
+    private static final String CUSTOM_CONTENT_TYPE = "application/x-custom";
+
+    @Test
+    void consumerCustomCodec() {
+        MapBasedConfig config = new MapBasedConfig()
+                .with("mp.messaging.incoming.in.connector", "quarkus-solace")
+                .with("mp.messaging.incoming.in.subscriptions", topic)
+                .with("mp.messaging.incoming.in.persistent.queue.name", topic);
+
+        // Run app that consumes messages, with a codec taking precedence over the built-in text codec
+        addBeans(MyTextCodec.class);
+        MyStringConsumer app = runApplication(config, MyStringConsumer.class);
+
+        // Produce messages
+        PersistentMessagePublisher publisher = messagingService.createPersistentMessagePublisherBuilder()
+                .build()
+                .start();
+        Topic tp = Topic.of(topic);
+        for (int i = 1; i <= 3; i++) {
+            publisher.publish(messagingService.messageBuilder()
+                    .withHTTPContentHeader(HttpHeaderValues.TEXT_PLAIN.toString(), "")
+                    .build(String.valueOf(i)), tp);
+        }
+
+        // Assert on consumed messages
+        await().untilAsserted(() -> assertThat(app.getReceived())
+                .containsExactly("decoded:1", "decoded:2", "decoded:3"));
+    }
+
+    @Test
+    void consumerDecodesOnce() {
+        MapBasedConfig config = new MapBasedConfig()
+                .with("mp.messaging.incoming.in.connector", "quarkus-solace")
+                .with("mp.messaging.incoming.in.subscriptions", topic)
+                .with("mp.messaging.incoming.in.persistent.queue.name", topic);
+
+        // Run app that reads the payload several times
+        MyCountingCodec.decoded.set(0);
+        addBeans(MyCountingCodec.class);
+        MyPayloadConsumer app = runApplication(config, MyPayloadConsumer.class);
+
+        // Produce messages
+        publishText("1", "2", "3");
+
+        // The payload is decoded once per message
+        await().untilAsserted(() -> assertThat(app.getReceived()).containsExactly("1", "2", "3"));
+        assertThat(MyCountingCodec.decoded).hasValue(3);
+    }
+
+    @Test
+    void consumerInboundMessageNotDecoded() {
+        MapBasedConfig config = new MapBasedConfig()
+                .with("mp.messaging.incoming.in.connector", "quarkus-solace")
+                .with("mp.messaging.incoming.in.subscriptions", topic)
+                .with("mp.messaging.incoming.in.persistent.queue.name", topic)
+                // Set by the Quarkus extension from the method signature
+                .with("mp.messaging.incoming.in.payload.type", InboundMessage.class.getName());
+
+        // Run app that consumes the Solace messages
+        MyCountingCodec.decoded.set(0);
+        addBeans(MyCountingCodec.class);
+        MyInboundMessageConsumer app = runApplication(config, MyInboundMessageConsumer.class);
+
+        // Produce messages
+        publishText("1", "2", "3");
+
+        // The payload is never decoded
+        await().untilAsserted(() -> assertThat(app.getReceived()).containsExactly("1", "2", "3"));
+        assertThat(MyCountingCodec.decoded).hasValue(0);
+    }
+
+    @Test
+    void publisherCustomCodec() {
+        MapBasedConfig config = new MapBasedConfig()
+                .with("mp.messaging.outgoing.out.connector", "quarkus-solace")
+                .with("mp.messaging.outgoing.out.topic", topic);
+
+        List<String> expected = new CopyOnWriteArrayList<>();
+        List<String> contentTypes = new CopyOnWriteArrayList<>();
+
+        // Start listening first
+        PersistentMessageReceiver receiver = messagingService.createPersistentMessageReceiverBuilder()
+                .withSubscriptions(TopicSubscription.of(topic))
+                .build(Queue.nonDurableExclusiveQueue());
+        receiver.receiveAsync(inboundMessage -> {
+            expected.add(inboundMessage.getPayloadAsString());
+            contentTypes.add(inboundMessage.getRestInteroperabilitySupport().getHTTPContentType());
+        });
+        receiver.start();
+
+        // Run app that publish messages, the text codec is selected from the payload type
+        addBeans(MyTextCodec.class, MyCustomCodec.class);
+        runApplication(config, MyApp.class);
+        // Assert on received messages
+        await().untilAsserted(() -> assertThat(expected).containsExactly("encoded:1", "encoded:2", "encoded:3"));
+        assertThat(contentTypes).containsOnly(HttpHeaderValues.TEXT_PLAIN.toString());
+    }
+
+    @Test
+    void publisherContentType() {
+        MapBasedConfig config = new MapBasedConfig()
+                .with("mp.messaging.outgoing.out.connector", "quarkus-solace")
+                .with("mp.messaging.outgoing.out.topic", topic)
+                .with("mp.messaging.outgoing.out.content-type", CUSTOM_CONTENT_TYPE);
+
+        List<String> expected = new CopyOnWriteArrayList<>();
+        List<String> contentTypes = new CopyOnWriteArrayList<>();
+
+        // Start listening first
+        PersistentMessageReceiver receiver = messagingService.createPersistentMessageReceiverBuilder()
+                .withSubscriptions(TopicSubscription.of(topic))
+                .build(Queue.nonDurableExclusiveQueue());
+        receiver.receiveAsync(inboundMessage -> {
+            expected.add(inboundMessage.getPayloadAsString());
+            contentTypes.add(inboundMessage.getRestInteroperabilitySupport().getHTTPContentType());
+        });
+        receiver.start();
+
+        // Run app that publish messages, the configured content type selects the codec instead of the payload type
+        addBeans(MyTextCodec.class, MyCustomCodec.class);
+        runApplication(config, MyApp.class);
+        // Assert on received messages
+        await().untilAsserted(() -> assertThat(expected).containsExactly("custom:1", "custom:2", "custom:3"));
+        assertThat(contentTypes).containsOnly(CUSTOM_CONTENT_TYPE);
+    }
+
+    private void publishText(String... payloads) {
+        PersistentMessagePublisher publisher = messagingService.createPersistentMessagePublisherBuilder()
+                .build()
+                .start();
+        Topic tp = Topic.of(topic);
+        for (String payload : payloads) {
+            publisher.publish(messagingService.messageBuilder()
+                    .withHTTPContentHeader(HttpHeaderValues.TEXT_PLAIN.toString(), "")
+                    .build(payload), tp);
+        }
+    }
+
+    @ApplicationScoped
+    static class MyTextCodec implements PayloadCodec {
+
+        @Override
+        public String contentType() {
+            return HttpHeaderValues.TEXT_PLAIN.toString();
+        }
+
+        @Override
+        public Decoder decoder(Type target) {
+            if (target == Object.class || target == String.class) {
+                return bytes -> "decoded:" + new String(bytes, StandardCharsets.UTF_8);
+            }
+            return null;
+        }
+
+        @Override
+        public Encoder encoder(Class<?> payloadType) {
+            return (builder, payload) -> builder.withHTTPContentHeader(contentType(), "")
+                    .build("encoded:" + payload);
+        }
+
+        @Override
+        public int getPriority() {
+            // Lower than the built-in text codec
+            return CODEC_DEFAULT_PRIORITY - 10;
+        }
+    }
+
+    @ApplicationScoped
+    static class MyCustomCodec implements PayloadCodec {
+
+        @Override
+        public String contentType() {
+            return CUSTOM_CONTENT_TYPE;
+        }
+
+        @Override
+        public Decoder decoder(Type target) {
+            return null;
+        }
+
+        @Override
+        public Encoder encoder(Class<?> payloadType) {
+            return (builder, payload) -> builder.withHTTPContentHeader(contentType(), "")
+                    .build("custom:" + payload);
+        }
+    }
+
+    @ApplicationScoped
+    static class MyCountingCodec implements PayloadCodec {
+
+        static final AtomicInteger decoded = new AtomicInteger();
+
+        @Override
+        public String contentType() {
+            return HttpHeaderValues.TEXT_PLAIN.toString();
+        }
+
+        @Override
+        public Decoder decoder(Type target) {
+            return bytes -> {
+                decoded.incrementAndGet();
+                return new String(bytes, StandardCharsets.UTF_8);
+            };
+        }
+
+        @Override
+        public Encoder encoder(Class<?> payloadType) {
+            return null;
+        }
+
+        @Override
+        public int getPriority() {
+            // Lower than the built-in text codec
+            return CODEC_DEFAULT_PRIORITY - 10;
+        }
+    }
+
+    @ApplicationScoped
+    static class MyPayloadConsumer {
+        private final List<String> received = new CopyOnWriteArrayList<>();
+
+        @Incoming("in")
+        CompletionStage<Void> in(Message<String> msg) {
+            // Memoized
+            received.add(msg.getPayload());
+            msg.getPayload();
+            return msg.ack();
+        }
+
+        public List<String> getReceived() {
+            return received;
+        }
+    }
+
+    @ApplicationScoped
+    static class MyInboundMessageConsumer {
+        private final List<String> received = new CopyOnWriteArrayList<>();
+
+        @Incoming("in")
+        void in(InboundMessage msg) {
+            received.add(msg.getPayloadAsString());
+        }
+
+        public List<String> getReceived() {
+            return received;
+        }
+    }
+
+    @ApplicationScoped
+    static class MyStringConsumer {
+        private final List<String> received = new CopyOnWriteArrayList<>();
+
+        @Incoming("in")
+        void in(String payload) {
+            received.add(payload);
+        }
+
+        public List<String> getReceived() {
+            return received;
+        }
+    }
+
+    @ApplicationScoped
+    static class MyApp {
+
+        @Outgoing("out")
+        Multi<String> out() {
+            return Multi.createFrom().items("1", "2", "3");
+        }
+    }
+}
@@ -4,18 +4,37 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.awaitility.Awaitility.await;
 
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import jakarta.enterprise.context.ApplicationScoped;
 
 import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.spi.ConnectorLiteral;
 import org.junit.jupiter.api.Test;
 
+import com.solace.messaging.config.ReceiverActivationPassivationConfiguration.ReceiverStateChangeListener.ReceiverState;
+import com.solace.messaging.publisher.DirectMessagePublisher;
 import com.solace.messaging.publisher.PersistentMessagePublisher;
+import com.solace.messaging.receiver.DirectMessageReceiver;
 import com.solace.messaging.receiver.InboundMessage;
 import com.solace.messaging.resources.Topic;
+import com.solace.messaging.resources.TopicSubscription;
 
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.handler.codec.http.HttpHeaderValues;
 import io.quarkiverse.solace.base.WeldTestBase;
+import io.smallrye.reactive.messaging.annotations.Blocking;
+import io.smallrye.reactive.messaging.health.HealthReport;
 import io.smallrye.reactive.messaging.test.common.config.MapBasedConfig;
 
 public class SolaceConsumerTest extends WeldTestBase {
@@ -44,17 +63,915 @@ public class SolaceConsumerTest extends WeldTestBase {
         await().untilAsserted(() -> assertThat(app.getReceived()).contains("1", "2", "3", "4", "5"));
     }
 
+    @Test
+    void consumerPushMode() {
+        MapBasedConfig config = new MapBasedConfig()
+                .with("mp.messaging.incoming.in.connector", "quarkus-solace")
+                .with("mp.messaging.incoming.in.subscriptions", topic)
+                .with("mp.messaging.incoming.in.consumer.mode", "push")
+                .with("mp.messaging.incoming.in.consumer.buffer.capacity", 2);
+
+        // Run app that consumes messages
+        MyConsumer app = runApplication(config, MyConsumer.class);
+
+        // Produce messages
+        PersistentMessagePublisher publisher = messagingService.createPersistentMessagePublisherBuilder()
+                .build()
+                .start();
+        Topic tp = Topic.of(topic);
+        publisher.publish("1", tp);
+        publisher.publish("2", tp);
+        publisher.publish("3", tp);
+        publisher.publish("4", tp);
+        publisher.publish("5", tp);
+
+        // Assert on published messages
+        await().untilAsserted(() -> assertThat(app.getReceived()).containsExactly("1", "2", "3", "4", "5"));
+    }
+
+    @Test
+    void consumerPushModeMaxUnacked() throws Exception {
+        MapBasedConfig config = new MapBasedConfig()
+                .with("mp.messaging.incoming.in.connector", "quarkus-solace")
+                .with("mp.messaging.incoming.in.subscriptions", topic)
+                .with("mp.messaging.incoming.in.persistent.queue.name", topic)
+                .with("mp.messaging.incoming.in.consumer.mode", "push")
+                .with("mp.messaging.incoming.in.max-unacked-messages", 2);
+
+        // Run app that holds the messages without acking them
+        MyHoldingConsumer app = runApplication(config, MyHoldingConsumer.class);
+
+        // Produce messages
+        PersistentMessagePublisher publisher = messagingService.createPersistentMessagePublisherBuilder()
+                .build()
+                .start();
+        Topic tp = Topic.of(topic);
+        for (int i = 0; i < 5; i++) {
+            publisher.publish(String.valueOf(i), tp);
+        }
+
+        // The receiver is paused at the limit instead of blocking the dispatch thread
+        await().untilAsserted(() -> assertThat(app.getHeld()).hasSize(2));
+        Thread.sleep(500);
+        assertThat(app.getHeld()).hasSize(2);
+
+        // And resumed once a message is settled
+        app.getHeld().get(0).ack();
+        await().untilAsserted(() -> assertThat(app.getHeld()).hasSizeGreaterThan(2));
+        app.getHeld().forEach(Message::ack);
+        await().untilAsserted(() -> assertThat(app.getHeld()).hasSize(5));
+    }
+
+    @Test
+    void consumerConcurrency() {
+        MapBasedConfig config = new MapBasedConfig()
+                .with("mp.messaging.incoming.in.connector", "quarkus-solace")
+                .with("mp.messaging.incoming.in.subscriptions", topic)
+                .with("mp.messaging.incoming.in.persistent.queue.name", topic)
+                .with("mp.messaging.incoming.in.concurrency", 3);
+
+        // Run app that consumes messages
+        MyConsumer app = runApplication(config, MyConsumer.class);
+
+        // Produce messages
+        PersistentMessagePublisher publisher = messagingService.createPersistentMessagePublisherBuilder()
+                .build()
+                .start();
+        Topic tp = Topic.of(topic);
+        for (int i = 0; i < 30; i++) {
+            publisher.publish(String.valueOf(i), tp);
+        }
+
+        // Assert on published messages, each one received once, by several receivers
+        await().untilAsserted(() -> assertThat(app.getReceived()).hasSize(30));
+        assertThat(app.getReceived()).doesNotHaveDuplicates();
+        assertThat(app.getThreads()).hasSizeGreaterThan(1);
+    }
+
+    @Test
+    void consumerBatch() {
+        MapBasedConfig config = new MapBasedConfig()
+                .with("mp.messaging.incoming.in.connector", "quarkus-solace")
+                .with("mp.messaging.incoming.in.subscriptions", topic)
+                .with("mp.messaging.incoming.in.persistent.queue.name", topic)
+                .with("mp.messaging.incoming.in.batch", true)
+                .with("mp.messaging.incoming.in.batch.max-size", 2);
+
+        // Run app that consumes messages
+        MyBatchConsumer app = runApplication(config, MyBatchConsumer.class);
+
+        // Produce messages
+        PersistentMessagePublisher publisher = messagingService.createPersistentMessagePublisherBuilder()
+                .build()
+                .start();
+        Topic tp = Topic.of(topic);
+        publisher.publish("1", tp);
+        publisher.publish("2", tp);
+        publisher.publish("3", tp);
+        publisher.publish("4", tp);
+        publisher.publish("5", tp);
+
+        // Assert on published messages
+        await().untilAsserted(() -> assertThat(app.getReceived()).containsExactly("1", "2", "3", "4", "5"));
+        await().untilAsserted(() -> assertThat(app.getBatchSizes()).containsExactly(2, 2, 1));
+    }
+
+    @Test
+    void consumerBatchOrderingKeyRetry() {
+        MapBasedConfig config = new MapBasedConfig()
+                .with("mp.messaging.incoming.in.connector", "quarkus-solace")
+                .with("mp.messaging.incoming.in.subscriptions", topic)
+                .with("mp.messaging.incoming.in.persistent.queue.name", topic)
+                .with("mp.messaging.incoming.in.batch", true)
+                .with("mp.messaging.incoming.in.batch.max-size", 2)
+                .with("mp.messaging.incoming.in.ordering.key", "key")
+                .with("mp.messaging.incoming.in.retry.max-attempts", 2)
+                .with("mp.messaging.incoming.in.retry.initial-backoff", 10);
+
+        // Run app that fails the first batch containing the second message
+        MyFailingBatchConsumer app = runApplication(config, MyFailingBatchConsumer.class);
+
+        // Produce messages
+        PersistentMessagePublisher publisher = messagingService.createPersistentMessagePublisherBuilder()
+                .build()
+                .start();
+        Topic tp = Topic.of(topic);
+        publisher.publish("1", tp);
+        publisher.publish("2", tp);
+        publisher.publish("3", tp);
+
+        // Assert on published messages, the failed batch being retried
+        await().untilAsserted(() -> {
+            assertThat(app.getReceived()).contains("1", "3");
+            assertThat(app.getReceived().stream().filter("2"::equals).count()).isEqualTo(2);
+        });
+    }
+
+    @Test
+    void consumerOrderingKey() {
+        MapBasedConfig config = new MapBasedConfig()
+                .with("mp.messaging.incoming.in.connector", "quarkus-solace")
+                .with("mp.messaging.incoming.in.subscriptions", topic)
+                .with("mp.messaging.incoming.in.persistent.queue.name", topic)
+                .with("mp.messaging.incoming.in.ordering.key", "property:key")
+                .with("mp.messaging.incoming.in.ordering.lanes", 4)
+                // Lanes move on without waiting for the coalesced acks to be flushed
+                .with("mp.messaging.incoming.in.ack.coalescing", true)
+                .with("mp.messaging.incoming.in.ack.coalescing.interval", 2000);
+
+        // Run app that consumes messages
+        MyOrderedConsumer app = runApplication(config, MyOrderedConsumer.class);
+
+        // Produce messages, interleaving the keys
+        PersistentMessagePublisher publisher = messagingService.createPersistentMessagePublisherBuilder()
+                .build()
+                .start();
+        Topic tp = Topic.of(topic);
+        for (int i = 0; i < 40; i++) {
+            publisher.publish(messagingService.messageBuilder()
+                    .withProperty("key", "k" + (i % 4))
+                    .build(String.valueOf(i)), tp);
+        }
+
+        // Assert on the per-key order, keys being processed concurrently
+        await().untilAsserted(() -> assertThat(app.getReceived()).hasSize(40));
+        for (int k = 0; k < 4; k++) {
+            List<Integer> sequence = app.getReceived(k);
+            assertThat(sequence).hasSize(10).isSorted();
+        }
+        assertThat(app.getMaxConcurrency()).isGreaterThan(1);
+    }
+
+    @Test
+    void consumerPayloadType() {
+        MapBasedConfig config = new MapBasedConfig()
+                .with("mp.messaging.incoming.in.connector", "quarkus-solace")
+                .with("mp.messaging.incoming.in.subscriptions", topic)
+                .with("mp.messaging.incoming.in.persistent.queue.name", topic)
+                .with("mp.messaging.incoming.in.payload.type", Price.class.getName());
+
+        // Run app that consumes messages
+        MyPriceConsumer app = runApplication(config, MyPriceConsumer.class);
+
+        // Produce messages
+        PersistentMessagePublisher publisher = messagingService.createPersistentMessagePublisherBuilder()
+                .build()
+                .start();
+        Topic tp = Topic.of(topic);
+        for (int i = 1; i <= 3; i++) {
+            publisher.publish(messagingService.messageBuilder()
+                    .withHTTPContentHeader(HttpHeaderValues.APPLICATION_JSON.toString(), "")
+                    .build("{\"symbol\":\"S" + i + "\",\"value\":" + i + "}"), tp);
+        }
+
+        // Assert on published messages
+        await().untilAsserted(() -> assertThat(app.getReceived())
+                .extracting(p -> p.symbol).containsExactly("S1", "S2", "S3"));
+    }
+
+    @Test
+    void consumerDirect() {
+        MapBasedConfig config = new MapBasedConfig()
+                .with("mp.messaging.incoming.in.connector", "quarkus-solace")
+                .with("mp.messaging.incoming.in.subscriptions", topic)
+                .with("mp.messaging.incoming.in.client.type", "direct")
+                .with("mp.messaging.incoming.in.direct.back-pressure.strategy", "drop-oldest");
+
+        // Run app that consumes messages
+        MyConsumer app = runApplication(config, MyConsumer.class);
+
+        // Produce messages
+        DirectMessagePublisher publisher = messagingService.createDirectMessagePublisherBuilder()
+                .build()
+                .start();
+        Topic tp = Topic.of(topic);
+        publisher.publish("1", tp);
+        publisher.publish("2", tp);
+        publisher.publish("3", tp);
+        publisher.publish("4", tp);
+        publisher.publish("5", tp);
+
+        // Assert on published messages
+        await().untilAsserted(() -> assertThat(app.getReceived()).containsExactly("1", "2", "3", "4", "5"));
+    }
+
+    @Test
+    void consumerDuplicates() {
+        MapBasedConfig config = new MapBasedConfig()
+                .with("mp.messaging.incoming.in.connector", "quarkus-solace")
+                .with("mp.messaging.incoming.in.subscriptions", topic)
+                .with("mp.messaging.incoming.in.persistent.queue.name", topic)
+                .with("mp.messaging.incoming.in.dedup.key", "application-message-id");
+
+        // Run app that consumes messages
+        MyConsumer app = runApplication(config, MyConsumer.class);
+
+        // Produce messages
+        PersistentMessagePublisher publisher = messagingService.createPersistentMessagePublisherBuilder()
+                .build()
+                .start();
+        Topic tp = Topic.of(topic);
+        publisher.publish(messagingService.messageBuilder().withApplicationMessageId("a").build("1"), tp);
+        await().untilAsserted(() -> assertThat(app.getReceived()).containsExactly("1"));
+        publisher.publish(messagingService.messageBuilder().withApplicationMessageId("a").build("1"), tp);
+        publisher.publish(messagingService.messageBuilder().withApplicationMessageId("b").build("2"), tp);
+
+        // Assert on published messages
+        await().untilAsserted(() -> assertThat(app.getReceived()).containsExactly("1", "2"));
+    }
+
+    @Test
+    void consumerFilter() {
+        MapBasedConfig config = new MapBasedConfig()
+                .with("mp.messaging.incoming.in.connector", "quarkus-solace")
+                .with("mp.messaging.incoming.in.subscriptions", topic)
+                .with("mp.messaging.incoming.in.persistent.queue.name", topic)
+                .with("mp.messaging.incoming.in.filter.properties", "kind=order");
+
+        // Run app that consumes messages
+        MyConsumer app = runApplication(config, MyConsumer.class);
+
+        // Produce messages
+        PersistentMessagePublisher publisher = messagingService.createPersistentMessagePublisherBuilder()
+                .build()
+                .start();
+        Topic tp = Topic.of(topic);
+        publisher.publish(messagingService.messageBuilder().withProperty("kind", "order").build("1"), tp);
+        publisher.publish(messagingService.messageBuilder().withProperty("kind", "payment").build("2"), tp);
+        publisher.publish("3", tp);
+        publisher.publish(messagingService.messageBuilder().withProperty("kind", "order").build("4"), tp);
+
+        // Assert on published messages, the filtered ones being skipped
+        await().untilAsserted(() -> assertThat(app.getReceived()).containsExactly("1", "4"));
+    }
+
+    @Test
+    void consumerMetrics() {
+        MapBasedConfig config = new MapBasedConfig()
+                .with("mp.messaging.incoming.in.connector", "quarkus-solace")
+                .with("mp.messaging.incoming.in.subscriptions", topic)
+                .with("mp.messaging.incoming.in.persistent.queue.name", topic);
+
+        // Run app that consumes messages
+        MyConsumer app = runApplication(config, MyConsumer.class);
+
+        // Produce messages
+        PersistentMessagePublisher publisher = messagingService.createPersistentMessagePublisherBuilder()
+                .build()
+                .start();
+        Topic tp = Topic.of(topic);
+        publisher.publish("1", tp);
+        publisher.publish("2", tp);
+        publisher.publish("3", tp);
+        await().untilAsserted(() -> assertThat(app.getReceived()).containsExactly("1", "2", "3"));
+
+        // Assert on channel metrics
+        SolaceConnector connector = getBeanManager().createInstance()
+                .select(SolaceConnector.class, ConnectorLiteral.of(SolaceConnector.CONNECTOR_NAME)).get();
+        ChannelMetrics metrics = connector.incomingChannels.get(0).getMetrics().get(0);
+        await().untilAsserted(() -> {
+            assertThat(metrics.getReceived()).isEqualTo(3);
+            assertThat(metrics.getAcked()).isEqualTo(3);
+            assertThat(metrics.getProcessing().getCount()).isEqualTo(3);
+            assertThat(metrics.getAckLatency().getCount()).isEqualTo(3);
+        });
+    }
+
+    @Test
+    void consumerActivation() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Metrics.addRegistry(registry);
+        MapBasedConfig config = new MapBasedConfig()
+                .with("mp.messaging.incoming.in.connector", "quarkus-solace")
+                .with("mp.messaging.incoming.in.subscriptions", topic)
+                .with("mp.messaging.incoming.in.persistent.queue.name", topic)
+                .with("mp.messaging.incoming.in.ack.coalescing", true)
+                .with("mp.messaging.incoming.in.ack.coalescing.interval", 60000);
+
+        // Run app that consumes messages
+        MyConsumer app = runApplication(config, MyConsumer.class);
+
+        // Produce messages
+        PersistentMessagePublisher publisher = messagingService.createPersistentMessagePublisherBuilder()
+                .build()
+                .start();
+        Topic tp = Topic.of(topic);
+        publisher.publish("1", tp);
+        publisher.publish("2", tp);
+        await().untilAsserted(() -> assertThat(app.getReceived()).containsExactly("1", "2"));
+
+        SolaceConnector connector = getBeanManager().createInstance()
+                .select(SolaceConnector.class, ConnectorLiteral.of(SolaceConnector.CONNECTOR_NAME)).get();
+        SolaceIncomingChannel channel = connector.incomingChannels.get(0);
+        ChannelMetrics metrics = channel.getMetrics().get(0);
+        ActivationTracker activation = channel.getActivation();
+        // The coalesced acks wait for the interval
+        await().untilAsserted(() -> assertThat(metrics.getAcked()).isEqualTo(2));
+        assertThat(metrics.getAckLatency().getCount()).isZero();
+
+        // Passivation flushes the coalesced acks
+        channel.onStateChange(ReceiverState.ACTIVE, ReceiverState.PASSIVE, System.currentTimeMillis());
+        await().untilAsserted(() -> assertThat(metrics.getAckLatency().getCount()).isEqualTo(2));
+        assertThat(activation.isActive()).isFalse();
+        assertThat(activation.getPassivations()).isEqualTo(1);
+        assertThat(registry.get("solace.channel.active").tag("channel", "in").gauge().value()).isEqualTo(0.0);
+        assertThat(registry.get("solace.channel.activation.first.message").tag("channel", "in").gauge().value()).isNaN();
+
+        // Activation measures the time to the first message dispatched, published after it here
+        channel.onStateChange(ReceiverState.PASSIVE, ReceiverState.ACTIVE, System.currentTimeMillis());
+        assertThat(activation.isActive()).isTrue();
+        assertThat(activation.getActivations()).isEqualTo(1);
+        assertThat(activation.getLastTimeToFirstMessage()).isEqualTo(-1);
+        publisher.publish("3", tp);
+        await().untilAsserted(() -> assertThat(activation.getLastTimeToFirstMessage()).isGreaterThanOrEqualTo(0));
+        assertThat(registry.get("solace.channel.active").tag("channel", "in").gauge().value()).isEqualTo(1.0);
+        assertThat(registry.get("solace.channel.activations").tag("channel", "in").functionCounter().count())
+                .isEqualTo(1.0);
+        assertThat(registry.get("solace.channel.passivations").tag("channel", "in").functionCounter().count())
+                .isEqualTo(1.0);
+        assertThat(registry.get("solace.channel.activation.first.message").tag("channel", "in").gauge().value())
+                .isGreaterThanOrEqualTo(0.0);
+        Metrics.removeRegistry(registry);
+    }
+
+    @Test
+    void consumerHealth() {
+        MapBasedConfig config = new MapBasedConfig()
+                .with("mp.messaging.incoming.in.connector", "quarkus-solace")
+                .with("mp.messaging.incoming.in.subscriptions", topic)
+                .with("mp.messaging.incoming.in.persistent.queue.name", topic);
+
+        // Run app that consumes messages
+        MyConsumer app = runApplication(config, MyConsumer.class);
+
+        SolaceConnector connector = getBeanManager().createInstance()
+                .select(SolaceConnector.class, ConnectorLiteral.of(SolaceConnector.CONNECTOR_NAME)).get();
+        await().untilAsserted(() -> {
+            assertThat(connector.getStartup().isOk()).isTrue();
+            assertThat(connector.getReadiness().isOk()).isTrue();
+            assertThat(connector.getLiveness().isOk()).isTrue();
+        });
+
+        // Closing the channel reports it as not ready
+        connector.incomingChannels.get(0).getHealth().closed();
+        assertThat(connector.getReadiness().isOk()).isFalse();
+        assertThat(connector.getLiveness().isOk()).isTrue();
+    }
+
+    @Test
+    void consumerStalledHealth() {
+        MapBasedConfig config = new MapBasedConfig()
+                .with("mp.messaging.incoming.in.connector", "quarkus-solace")
+                .with("mp.messaging.incoming.in.subscriptions", topic)
+                .with("mp.messaging.incoming.in.persistent.queue.name", topic)
+                .with("mp.messaging.incoming.in.health.stall-threshold", 500);
+
+        // Run app that holds the messages without acking them
+        MyHoldingConsumer app = runApplication(config, MyHoldingConsumer.class);
+
+        SolaceConnector connector = getBeanManager().createInstance()
+                .select(SolaceConnector.class, ConnectorLiteral.of(SolaceConnector.CONNECTOR_NAME)).get();
+        await().untilAsserted(() -> assertThat(connector.getReadiness().isOk()).isTrue());
+
+        // Produce messages
+        PersistentMessagePublisher publisher = messagingService.createPersistentMessagePublisherBuilder()
+                .build()
+                .start();
+        publisher.publish("1", Topic.of(topic));
+        await().untilAsserted(() -> assertThat(app.getHeld()).hasSize(1));
+
+        // Reported as stalled once no message was settled within the threshold
+        await().untilAsserted(() -> assertThat(connector.getReadiness().getChannels())
+                .singleElement()
+                .satisfies(info -> {
+                    assertThat(info.getChannel()).isEqualTo("in");
+                    assertThat(info.isOk()).isFalse();
+                    assertThat(info.getMessage()).isEqualTo("stalled");
+                }));
+        assertThat(connector.getLiveness().isOk()).isTrue();
+
+        // Ready again once the messages are settled
+        app.getHeld().forEach(Message::ack);
+        await().untilAsserted(() -> assertThat(connector.getReadiness().isOk()).isTrue());
+    }
+
+    @Test
+    void consumerDrainOnShutdown() throws Exception {
+        MapBasedConfig config = new MapBasedConfig()
+                .with("mp.messaging.incoming.in.connector", "quarkus-solace")
+                .with("mp.messaging.incoming.in.subscriptions", topic)
+                .with("mp.messaging.incoming.in.persistent.queue.name", topic)
+                .with("mp.messaging.incoming.in.client.shutdown.timeout", 10000);
+
+        // Run app that holds the messages without acking them
+        MyHoldingConsumer app = runApplication(config, MyHoldingConsumer.class);
+
+        // Produce messages
+        PersistentMessagePublisher publisher = messagingService.createPersistentMessagePublisherBuilder()
+                .build()
+                .start();
+        Topic tp = Topic.of(topic);
+        publisher.publish("1", tp);
+        publisher.publish("2", tp);
+        await().untilAsserted(() -> assertThat(app.getHeld()).hasSize(2));
+
+        // Shutdown waits for the messages in flight
+        SolaceConnector connector = getBeanManager().createInstance()
+                .select(SolaceConnector.class, ConnectorLiteral.of(SolaceConnector.CONNECTOR_NAME)).get();
+        SolaceIncomingChannel channel = connector.incomingChannels.get(0);
+        CompletableFuture<Void> terminated = CompletableFuture.runAsync(() -> connector.terminate(null));
+        Thread.sleep(500);
+        assertThat(terminated).isNotDone();
+        assertThat(channel.getUnsettled()).isEqualTo(2);
+
+        app.getHeld().forEach(Message::ack);
+        terminated.get(5, TimeUnit.SECONDS);
+        assertThat(channel.getUnsettled()).isZero();
+        assertThat(channel.getAbandoned()).isZero();
+    }
+
+    @Test
+    void consumerAbandonedOnShutdown() throws Exception {
+        MapBasedConfig config = new MapBasedConfig()
+                .with("mp.messaging.incoming.in.connector", "quarkus-solace")
+                .with("mp.messaging.incoming.in.subscriptions", topic)
+                .with("mp.messaging.incoming.in.persistent.queue.name", topic)
+                .with("mp.messaging.incoming.in.client.shutdown.timeout", 1000);
+
+        // Run app that holds the messages without acking them
+        MyHoldingConsumer app = runApplication(config, MyHoldingConsumer.class);
+
+        // Produce messages
+        PersistentMessagePublisher publisher = messagingService.createPersistentMessagePublisherBuilder()
+                .build()
+                .start();
+        Topic tp = Topic.of(topic);
+        publisher.publish("1", tp);
+        publisher.publish("2", tp);
+        publisher.publish("3", tp);
+        await().untilAsserted(() -> assertThat(app.getHeld()).hasSizeGreaterThan(2));
+        app.getHeld().get(0).ack().toCompletableFuture().get(5, TimeUnit.SECONDS);
+
+        // Shutdown gives up on the messages still in flight at the deadline
+        SolaceConnector connector = getBeanManager().createInstance()
+                .select(SolaceConnector.class, ConnectorLiteral.of(SolaceConnector.CONNECTOR_NAME)).get();
+        long start = System.nanoTime();
+        connector.terminate(null);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isBetween(900L, 5000L);
+        assertThat(connector.incomingChannels.get(0).getAbandoned()).isEqualTo(2);
+    }
+
+    @Test
+    void consumerFailureRetry() {
+        MapBasedConfig config = new MapBasedConfig()
+                .with("mp.messaging.incoming.in.connector", "quarkus-solace")
+                .with("mp.messaging.incoming.in.subscriptions", topic)
+                .with("mp.messaging.incoming.in.persistent.queue.name", topic)
+                .with("mp.messaging.incoming.in.retry.max-attempts", 2)
+                .with("mp.messaging.incoming.in.retry.initial-backoff", 10);
+
+        // Run app that consumes messages
+        MyFailingConsumer app = runApplication(config, MyFailingConsumer.class);
+
+        // Produce messages
+        PersistentMessagePublisher publisher = messagingService.createPersistentMessagePublisherBuilder()
+                .build()
+                .start();
+        Topic tp = Topic.of(topic);
+        publisher.publish("1", tp);
+        publisher.publish("2", tp);
+        publisher.publish("3", tp);
+
+        // Assert on published messages, the failed one being retried twice
+        await().untilAsserted(() -> assertThat(app.getReceived()).containsExactlyInAnyOrder("1", "2", "2", "2", "3"));
+
+        // The failed message is counted once, when settled after its last retry
+        SolaceConnector connector = getBeanManager().createInstance()
+                .select(SolaceConnector.class, ConnectorLiteral.of(SolaceConnector.CONNECTOR_NAME)).get();
+        ChannelMetrics metrics = connector.incomingChannels.get(0).getMetrics().get(0);
+        await().untilAsserted(() -> {
+            assertThat(metrics.getAcked()).isEqualTo(2);
+            assertThat(metrics.getNacked()).isEqualTo(1);
+            assertThat(metrics.getProcessing().getCount()).isEqualTo(3);
+        });
+    }
+
+    @Test
+    void consumerFailureDeadLetter() {
+        String deadLetterTopic = topic + "/dead-letter";
+        MapBasedConfig config = new MapBasedConfig()
+                .with("mp.messaging.incoming.in.connector", "quarkus-solace")
+                .with("mp.messaging.incoming.in.subscriptions", topic)
+                .with("mp.messaging.incoming.in.persistent.queue.name", topic)
+                .with("mp.messaging.incoming.in.failure-strategy", "dead-letter")
+                .with("mp.messaging.incoming.in.failure-strategy.dead-letter-topic", deadLetterTopic);
+
+        // Consume the dead-letter topic
+        List<InboundMessage> deadLetters = new CopyOnWriteArrayList<>();
+        DirectMessageReceiver receiver = messagingService.createDirectMessageReceiverBuilder()
+                .withSubscriptions(TopicSubscription.of(deadLetterTopic))
+                .build()
+                .start();
+        receiver.receiveAsync(deadLetters::add);
+
+        // Run app that consumes messages
+        MyFailingConsumer app = runApplication(config, MyFailingConsumer.class);
+
+        // Produce messages, with a content type and no content encoding
+        PersistentMessagePublisher publisher = messagingService.createPersistentMessagePublisherBuilder()
+                .build()
+                .start();
+        Topic tp = Topic.of(topic);
+        for (int i = 1; i <= 3; i++) {
+            publisher.publish(messagingService.messageBuilder()
+                    .withHTTPContentHeader(HttpHeaderValues.TEXT_PLAIN.toString(), "")
+                    .build(String.valueOf(i)), tp);
+        }
+
+        // Assert on the failed message, published to the dead-letter topic
+        await().untilAsserted(() -> assertThat(app.getReceived()).containsExactly("1", "2", "3"));
+        await().untilAsserted(() -> assertThat(deadLetters).hasSize(1));
+        InboundMessage deadLetter = deadLetters.get(0);
+        assertThat(deadLetter.getPayloadAsString()).isEqualTo("2");
+        assertThat(deadLetter.getRestInteroperabilitySupport().getHTTPContentType())
+                .isEqualTo(HttpHeaderValues.TEXT_PLAIN.toString());
+        assertThat(deadLetter.getProperty(DeadLetterPublisher.DEAD_LETTER_REASON)).isEqualTo("boom");
+        receiver.terminate(0);
+    }
+
+    @Test
+    void consumerSharedReceiver() {
+        MapBasedConfig config = new MapBasedConfig()
+                .with("mp.messaging.incoming.orders.connector", "quarkus-solace")
+                .with("mp.messaging.incoming.orders.shared-receiver", topic)
+                .with("mp.messaging.incoming.orders.subscriptions", topic + "/orders/>")
+                .with("mp.messaging.incoming.orders.persistent.queue.name", topic)
+                .with("mp.messaging.incoming.all.connector", "quarkus-solace")
+                .with("mp.messaging.incoming.all.shared-receiver", topic)
+                .with("mp.messaging.incoming.all.subscriptions", topic + "/*/created");
+
+        // Run app that consumes messages
+        MySharedConsumer app = runApplication(config, MySharedConsumer.class);
+
+        // Produce messages
+        PersistentMessagePublisher publisher = messagingService.createPersistentMessagePublisherBuilder()
+                .build()
+                .start();
+        publisher.publish("1", Topic.of(topic + "/orders/created"));
+        publisher.publish("2", Topic.of(topic + "/orders/eu/shipped"));
+        publisher.publish("3", Topic.of(topic + "/payments/created"));
+
+        // Assert on routed messages, the first one matching both channels
+        await().untilAsserted(() -> assertThat(app.getOrders()).containsExactly("1", "2"));
+        await().untilAsserted(() -> assertThat(app.getAll()).containsExactly("1", "3"));
+
+        // Both channels report the health of the shared receiver
+        SolaceConnector connector = getBeanManager().createInstance()
+                .select(SolaceConnector.class, ConnectorLiteral.of(SolaceConnector.CONNECTOR_NAME)).get();
+        await().untilAsserted(() -> assertThat(connector.getReadiness().getChannels())
+                .extracting(HealthReport.ChannelInfo::getChannel)
+                .containsExactlyInAnyOrder("orders", "all"));
+        assertThat(connector.getStartup().getChannels()).hasSize(2);
+        assertThat(connector.getLiveness().getChannels()).hasSize(2);
+    }
+
+    @Test
+    void consumerSharedReceiverUnrouted() {
+        String deadLetterTopic = topic + "/dead-letter";
+        MapBasedConfig config = new MapBasedConfig()
+                .with("mp.messaging.incoming.orders.connector", "quarkus-solace")
+                .with("mp.messaging.incoming.orders.shared-receiver", topic)
+                .with("mp.messaging.incoming.orders.subscriptions", topic + "/orders/>")
+                .with("mp.messaging.incoming.orders.persistent.queue.name", topic)
+                .with("mp.messaging.incoming.orders.failure-strategy", "dead-letter")
+                .with("mp.messaging.incoming.orders.failure-strategy.dead-letter-topic", deadLetterTopic)
+                .with("mp.messaging.incoming.all.connector", "quarkus-solace")
+                .with("mp.messaging.incoming.all.shared-receiver", topic)
+                .with("mp.messaging.incoming.all.subscriptions", topic + "/*/created");
+
+        // Consume the dead-letter topic
+        List<InboundMessage> deadLetters = new CopyOnWriteArrayList<>();
+        DirectMessageReceiver receiver = messagingService.createDirectMessageReceiverBuilder()
+                .withSubscriptions(TopicSubscription.of(deadLetterTopic))
+                .build()
+                .start();
+        receiver.receiveAsync(deadLetters::add);
+
+        // Run app that consumes messages
+        MySharedConsumer app = runApplication(config, MySharedConsumer.class);
+
+        // Produce messages, the second one published to the queue itself, matching no channel
+        PersistentMessagePublisher publisher = messagingService.createPersistentMessagePublisherBuilder()
+                .build()
+                .start();
+        publisher.publish("1", Topic.of(topic + "/orders/created"));
+        publisher.publish("2", Topic.of("#P2P/QUE/" + topic));
+
+        // The unrouted message is settled with the failure strategy of the channel configuring the receiver
+        await().untilAsserted(() -> assertThat(app.getOrders()).containsExactly("1"));
+        await().untilAsserted(() -> assertThat(deadLetters).hasSize(1));
+        assertThat(deadLetters.get(0).getPayloadAsString()).isEqualTo("2");
+        receiver.terminate(0);
+    }
+
+    @Test
+    void consumerSharedReceiverSlowChannel() throws Exception {
+        MapBasedConfig config = new MapBasedConfig()
+                .with("mp.messaging.incoming.orders.connector", "quarkus-solace")
+                .with("mp.messaging.incoming.orders.shared-receiver", topic)
+                .with("mp.messaging.incoming.orders.subscriptions", topic + "/orders/>")
+                .with("mp.messaging.incoming.orders.persistent.queue.name", topic)
+                .with("mp.messaging.incoming.orders.consumer.buffer.capacity", 4)
+                .with("mp.messaging.incoming.all.connector", "quarkus-solace")
+                .with("mp.messaging.incoming.all.shared-receiver", topic)
+                .with("mp.messaging.incoming.all.subscriptions", topic + "/*/created");
+
+        // Run app whose orders channel does not complete the processing of its first message
+        MySlowSharedConsumer app = runApplication(config, MySlowSharedConsumer.class);
+
+        // Produce messages
+        PersistentMessagePublisher publisher = messagingService.createPersistentMessagePublisherBuilder()
+                .build()
+                .start();
+        Topic tp = Topic.of(topic + "/orders/created");
+        for (int i = 0; i < 100; i++) {
+            publisher.publish(String.valueOf(i), tp);
+        }
+
+        // The slow channel stops the shared receiver instead of buffering every message
+        await().untilAsserted(() -> assertThat(app.getOrders()).hasSize(1));
+        Thread.sleep(500);
+        assertThat(app.getAll()).hasSizeLessThan(20);
+
+        app.release();
+        await().untilAsserted(() -> assertThat(app.getOrders()).hasSize(100));
+        await().untilAsserted(() -> assertThat(app.getAll()).hasSize(100));
+    }
+
+    @Test
+    void consumerSubscriptionsChanged() {
+        MapBasedConfig config = new MapBasedConfig()
+                .with("mp.messaging.incoming.in.connector", "quarkus-solace")
+                .with("mp.messaging.incoming.in.subscriptions", topic + "/a")
+                .with("mp.messaging.incoming.in.persistent.queue.name", topic);
+
+        // Run app that consumes messages
+        MyConsumer app = runApplication(config, MyConsumer.class);
+
+        // Subscribe to another topic
+        SolaceSubscriptions subscriptions = get(SolaceSubscriptionService.class).getSubscriptions("in");
+        subscriptions.add(topic + "/b").toCompletableFuture().join();
+        assertThat(subscriptions.getSubscriptions()).containsExactlyInAnyOrder(topic + "/a", topic + "/b");
+
+        // Produce messages
+        PersistentMessagePublisher publisher = messagingService.createPersistentMessagePublisherBuilder()
+                .build()
+                .start();
+        publisher.publish("1", Topic.of(topic + "/a"));
+        publisher.publish("2", Topic.of(topic + "/b"));
+
+        // Assert on published messages
+        await().untilAsserted(() -> assertThat(app.getReceived()).containsExactly("1", "2"));
+    }
+
+    @ApplicationScoped
+    static class MySharedConsumer {
+        private final List<String> orders = new CopyOnWriteArrayList<>();
+        private final List<String> all = new CopyOnWriteArrayList<>();
+
+        @Incoming("orders")
+        void orders(InboundMessage msg) {
+            orders.add(msg.getPayloadAsString());
+        }
+
+        @Incoming("all")
+        void all(InboundMessage msg) {
+            all.add(msg.getPayloadAsString());
+        }
+
+        public List<String> getOrders() {
+            return orders;
+        }
+
+        public List<String> getAll() {
+            return all;
+        }
+    }
+
+    @ApplicationScoped
+    static class MySlowSharedConsumer {
+        private final List<String> orders = new CopyOnWriteArrayList<>();
+        private final List<String> all = new CopyOnWriteArrayList<>();
+        private final CompletableFuture<Void> released = new CompletableFuture<>();
+
+        @Incoming("orders")
+        CompletionStage<Void> orders(InboundMessage msg) {
+            orders.add(msg.getPayloadAsString());
+            return released;
+        }
+
+        @Incoming("all")
+        void all(InboundMessage msg) {
+            all.add(msg.getPayloadAsString());
+        }
+
+        public void release() {
+            released.complete(null);
+        }
+
+        public List<String> getOrders() {
+            return orders;
+        }
+
+        public List<String> getAll() {
+            return all;
+        }
+    }
+
+    @ApplicationScoped
+    static class MyFailingConsumer {
+        private final List<String> received = new CopyOnWriteArrayList<>();
+
+        @Incoming("in")
+        void in(InboundMessage msg) {
+            String payload = msg.getPayloadAsString();
+            received.add(payload);
+            if ("2".equals(payload)) {
+                throw new IllegalStateException("boom");
+            }
+        }
+
+        public List<String> getReceived() {
+            return received;
+        }
+    }
+
+    public static class Price {
+        public String symbol;
+        public int value;
+    }
+
+    @ApplicationScoped
+    static class MyPriceConsumer {
+        private final List<Price> received = new CopyOnWriteArrayList<>();
+
+        @Incoming("in")
+        void in(Price price) {
+            received.add(price);
+        }
+
+        public List<Price> getReceived() {
+            return received;
+        }
+    }
+
+    @ApplicationScoped
+    static class MyBatchConsumer {
+        private final List<String> received = new CopyOnWriteArrayList<>();
+        private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+        @Incoming("in")
+        CompletionStage<Void> in(Message<List<Object>> batch) {
+            SolaceInboundBatchMetadata metadata = batch.getMetadata(SolaceInboundBatchMetadata.class).orElseThrow();
+            batchSizes.add(metadata.size());
+            metadata.getMetadata().forEach(m -> received.add(m.getPayloadAsString()));
+            return batch.ack();
+        }
+
+        public List<String> getReceived() {
+            return received;
+        }
+
+        public List<Integer> getBatchSizes() {
+            return batchSizes;
+        }
+    }
+
+    @ApplicationScoped
+    static class MyFailingBatchConsumer {
+        private final List<String> received = new CopyOnWriteArrayList<>();
+        private final AtomicBoolean failed = new AtomicBoolean();
+
+        @Incoming("in")
+        CompletionStage<Void> in(Message<List<Object>> batch) {
+            List<String> payloads = batch.getMetadata(SolaceInboundBatchMetadata.class).orElseThrow().getMetadata()
+                    .stream().map(SolaceInboundMetadata::getPayloadAsString).collect(Collectors.toList());
+            received.addAll(payloads);
+            if (payloads.contains("2") && failed.compareAndSet(false, true)) {
+                return batch.nack(new IllegalStateException("boom"));
+            }
+            return batch.ack();
+        }
+
+        public List<String> getReceived() {
+            return received;
+        }
+    }
+
+    @ApplicationScoped
+    static class MyOrderedConsumer {
+        private final List<String> received = new CopyOnWriteArrayList<>();
+        private final AtomicInteger concurrency = new AtomicInteger();
+        private final AtomicInteger maxConcurrency = new AtomicInteger();
+
+        @Incoming("in")
+        @Blocking(ordered = false)
+        void in(InboundMessage msg) throws InterruptedException {
+            maxConcurrency.accumulateAndGet(concurrency.incrementAndGet(), Math::max);
+            received.add(msg.getProperty("key") + ":" + msg.getPayloadAsString());
+            Thread.sleep(20);
+            concurrency.decrementAndGet();
+        }
+
+        public List<String> getReceived() {
+            return received;
+        }
+
+        public List<Integer> getReceived(int key) {
+            return received.stream()
+                    .filter(r -> r.startsWith("k" + key + ":"))
+                    .map(r -> Integer.parseInt(r.substring(r.indexOf(':') + 1)))
+                    .collect(Collectors.toList());
+        }
+
+        public int getMaxConcurrency() {
+            return maxConcurrency.get();
+        }
+    }
+
+    @ApplicationScoped
+    static class MyHoldingConsumer {
+        private final List<Message<?>> held = new CopyOnWriteArrayList<>();
+
+        @Incoming("in")
+        CompletionStage<Void> in(Message<?> msg) {
+            held.add(msg);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        public List<Message<?>> getHeld() {
+            return held;
+        }
+    }
+
     @ApplicationScoped
     static class MyConsumer {
         private final List<String> received = new CopyOnWriteArrayList<>();
+        private final Set<String> threads = ConcurrentHashMap.newKeySet();
 
         @Incoming("in")
         void in(InboundMessage msg) {
             received.add(msg.getPayloadAsString());
+            // Each receiver dispatches on its own event loop
+            threads.add(Thread.currentThread().getName());
         }
 
         public List<String> getReceived() {
             return received;
         }
+
+        public Set<String> getThreads() {
+            return threads;
+        }
     }
 }
@@ -0,0 +1,46 @@
+package io.quarkiverse.solace;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class SolaceIncomingChannelTest {
+
+    @Test
+    void platformPollerThread() throws Exception {
+        Thread thread = pollerThread(false);
+
+        assertThat(thread.getName()).isEqualTo("solace-poller-in");
+        assertThat(isVirtual(thread)).isFalse();
+    }
+
+    @Test
+    void virtualPollerThread() throws Exception {
+        Thread thread = pollerThread(true);
+
+        assertThat(thread.getName()).isEqualTo("solace-poller-in");
+        // Falls back to a platform thread before Java 21
+        assertThat(isVirtual(thread)).isEqualTo(Runtime.version().feature() >= 21);
+    }
+
+    private static Thread pollerThread(boolean virtual) throws Exception {
+        ExecutorService poller = SolaceIncomingChannel.newPollerThread("in", virtual);
+        try {
+            return poller.submit(Thread::currentThread).get(5, TimeUnit.SECONDS);
+        } finally {
+            poller.shutdown();
+        }
+    }
+
+    private static boolean isVirtual(Thread thread) throws Exception {
+        try {
+            return (boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+        } catch (NoSuchMethodException e) {
+            // Before Java 21, all threads are platform threads
+            return false;
+        }
+    }
+}
@@ -46,6 +46,63 @@ public class SolacePublisherTest extends WeldTestBase {
         await().untilAsserted(() -> assertThat(expected).contains("1", "2", "3", "4", "5"));
     }
 
+    @Test
+    void publisherPartitionKey() {
+        MapBasedConfig config = new MapBasedConfig()
+                .with("mp.messaging.outgoing.out.connector", "quarkus-solace")
+                .with("mp.messaging.outgoing.out.topic", topic);
+
+        List<String> expected = new CopyOnWriteArrayList<>();
+
+        // Start listening first
+        PersistentMessageReceiver receiver = messagingService.createPersistentMessageReceiverBuilder()
+                .withSubscriptions(TopicSubscription.of(topic))
+                .build(Queue.nonDurableExclusiveQueue());
+        receiver.receiveAsync(inboundMessage -> expected.add(new SolaceInboundMetadata(inboundMessage).getPartitionKey()));
+        receiver.start();
+
+        // Run app that publish messages
+        runApplication(config, MyPartitionedApp.class);
+        // Assert on received messages
+        await().untilAsserted(() -> assertThat(expected).containsExactly("k1", "k2", "k1"));
+    }
+
+    @Test
+    void publisherSenderTimestamp() {
+        MapBasedConfig config = new MapBasedConfig()
+                .with("mp.messaging.outgoing.out.connector", "quarkus-solace")
+                .with("mp.messaging.outgoing.out.topic", topic)
+                .with("mp.messaging.outgoing.out.sender-timestamp", true);
+
+        List<Long> expected = new CopyOnWriteArrayList<>();
+
+        // Start listening first
+        PersistentMessageReceiver receiver = messagingService.createPersistentMessageReceiverBuilder()
+                .withSubscriptions(TopicSubscription.of(topic))
+                .build(Queue.nonDurableExclusiveQueue());
+        receiver.receiveAsync(inboundMessage -> expected.add(new SolaceInboundMetadata(inboundMessage).getSenderTimestamp()));
+        receiver.start();
+
+        // Run app that publish messages
+        long start = System.currentTimeMillis();
+        runApplication(config, MyApp.class);
+        // Assert on received messages
+        await().untilAsserted(() -> assertThat(expected).hasSize(5)
+                .allSatisfy(timestamp -> assertThat(timestamp).isGreaterThanOrEqualTo(start)));
+    }
+
+    @ApplicationScoped
+    static class MyPartitionedApp {
+
+        @Outgoing("out")
+        Multi<Message<String>> out() {
+            return Multi.createFrom().items("k1", "k2", "k1")
+                    .map(key -> Message.of("payload").addMetadata(SolaceOutboundMetadata.builder()
+                            .setPartitionKey(key)
+                            .createPubSubOutboundMetadata()));
+        }
+    }
+
     @ApplicationScoped
     static class MyApp {
         private final List<String> acked = new CopyOnWriteArrayList<>();
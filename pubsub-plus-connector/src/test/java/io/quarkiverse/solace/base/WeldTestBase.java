@@ -10,6 +10,12 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 
 import io.quarkiverse.solace.SolaceConnector;
+import io.quarkiverse.solace.SolaceSubscriptionService;
+import io.quarkiverse.solace.codecs.BinaryPayloadCodec;
+import io.quarkiverse.solace.codecs.JsonPayloadCodec;
+import io.quarkiverse.solace.codecs.PayloadCodecs;
+import io.quarkiverse.solace.codecs.TextPayloadCodec;
+import io.quarkiverse.solace.converters.SolaceBinaryPayloadConverter;
 import io.quarkiverse.solace.converters.SolaceMessageConverter;
 import io.smallrye.config.SmallRyeConfigProviderResolver;
 import io.smallrye.config.inject.ConfigExtension;
@@ -61,9 +67,15 @@ public class WeldTestBase extends SolaceBaseTest {
         weld.addBeanClass(LegacyEmitterFactoryImpl.class);
 
         weld.addBeanClass(SolaceConnector.class);
+        weld.addBeanClass(SolaceSubscriptionService.class);
         weld.addBeanClass(MetricDecorator.class);
         weld.addBeanClass(MicrometerDecorator.class);
         weld.addBeanClass(SolaceMessageConverter.class);
+        weld.addBeanClass(SolaceBinaryPayloadConverter.class);
+        weld.addBeanClass(PayloadCodecs.class);
+        weld.addBeanClass(JsonPayloadCodec.class);
+        weld.addBeanClass(TextPayloadCodec.class);
+        weld.addBeanClass(BinaryPayloadCodec.class);
 
         weld.addBeanClass(MessagingServiceProvider.class);
         weld.disableDiscovery();
@@ -0,0 +1,100 @@
+package io.quarkiverse.solace.codecs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import jakarta.enterprise.inject.Instance;
+
+import org.junit.jupiter.api.Test;
+
+import com.solace.messaging.receiver.InboundMessage;
+import com.solace.messaging.util.InteroperabilitySupport.RestInteroperabilitySupport;
+
+class InboundPayloadDecoderTest {
+
+    @Test
+    void normalizeContentType() {
+        assertThat(InboundPayloadDecoder.normalize("text/plain")).isEqualTo("text/plain");
+        assertThat(InboundPayloadDecoder.normalize(" Text/Plain ; charset=UTF-8")).isEqualTo("text/plain");
+    }
+
+    @Test
+    void decodeIgnoringCaseAndParameters() {
+        InboundPayloadDecoder decoder = decoder();
+
+        assertThat(decoder.decode(message("text/plain"))).isEqualTo("payload");
+        assertThat(decoder.decode(message("TEXT/PLAIN; charset=utf-8"))).isEqualTo("payload");
+        assertThat(decoder.decode(message("text/plain;charset=iso-8859-1"))).isEqualTo("payload");
+        // Resolved once
+        assertThat(decoder.getCachedContentTypes()).isEqualTo(1);
+    }
+
+    @Test
+    void boundedCache() {
+        InboundPayloadDecoder decoder = decoder();
+
+        for (int i = 0; i < 2 * InboundPayloadDecoder.MAX_CONTENT_TYPES; i++) {
+            assertThat(decoder.decode(message("application/x-" + i))).isInstanceOf(byte[].class);
+        }
+        assertThat(decoder.getCachedContentTypes()).isEqualTo(InboundPayloadDecoder.MAX_CONTENT_TYPES);
+
+        // Still decoded beyond the bound
+        assertThat(decoder.decode(message("text/plain"))).isEqualTo("payload");
+    }
+
+    @Test
+    void fallbackOnDecodeFailure() {
+        InboundPayloadDecoder decoder = codecs(new FailingCodec()).inbound(Object.class, null);
+
+        // Logged, and consumed as bytes
+        assertThat(decoder.decode(message("text/plain"))).isInstanceOf(byte[].class);
+    }
+
+    @Test
+    void passInboundMessageThrough() {
+        InboundMessage message = message("text/plain");
+
+        assertThat(codecs().inbound(InboundMessage.class, null).decode(message)).isSameAs(message);
+    }
+
+    private static InboundPayloadDecoder decoder() {
+        return codecs().inbound(Object.class, null);
+    }
+
+    private static PayloadCodecs codecs() {
+        return codecs(new TextPayloadCodec());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static PayloadCodecs codecs(PayloadCodec codec) {
+        PayloadCodecs codecs = new PayloadCodecs();
+        codecs.instances = mock(Instance.class);
+        when(codecs.instances.stream()).thenReturn(Stream.of(codec));
+        codecs.init();
+        return codecs;
+    }
+
+    private static InboundMessage message(String contentType) {
+        RestInteroperabilitySupport rest = mock(RestInteroperabilitySupport.class);
+        when(rest.getHTTPContentType()).thenReturn(contentType);
+        InboundMessage message = mock(InboundMessage.class);
+        when(message.getRestInteroperabilitySupport()).thenReturn(rest);
+        when(message.getPayloadAsBytes()).thenReturn("payload".getBytes(StandardCharsets.UTF_8));
+        return message;
+    }
+
+    private static class FailingCodec extends TextPayloadCodec {
+
+        @Override
+        public Decoder decoder(Type target) {
+            return bytes -> {
+                throw new IllegalArgumentException("boom");
+            };
+        }
+    }
+}
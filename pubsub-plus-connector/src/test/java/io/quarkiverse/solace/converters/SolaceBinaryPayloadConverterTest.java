@@ -0,0 +1,66 @@
+package io.quarkiverse.solace.converters;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.junit.jupiter.api.Test;
+
+import com.solace.messaging.receiver.InboundMessage;
+
+import io.quarkiverse.solace.SolaceInboundMetadata;
+import io.vertx.core.buffer.Buffer;
+
+class SolaceBinaryPayloadConverterTest {
+
+    private final SolaceBinaryPayloadConverter converter = new SolaceBinaryPayloadConverter();
+
+    @Test
+    void canConvert() {
+        Message<?> message = message("payload".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(converter.canConvert(message, ByteBuffer.class)).isTrue();
+        assertThat(converter.canConvert(message, Buffer.class)).isTrue();
+        assertThat(converter.canConvert(message, byte[].class)).isFalse();
+        // Not a Solace message
+        assertThat(converter.canConvert(Message.of("payload"), ByteBuffer.class)).isFalse();
+    }
+
+    @Test
+    void byteBuffer() {
+        byte[] bytes = "payload".getBytes(StandardCharsets.UTF_8);
+
+        ByteBuffer buffer = (ByteBuffer) converter.convert(message(bytes), ByteBuffer.class).getPayload();
+        assertThat(buffer.isReadOnly()).isTrue();
+        assertThat(buffer.remaining()).isEqualTo(bytes.length);
+        assertThat(buffer.get(0)).isEqualTo((byte) 'p');
+
+        // Wraps the payload bytes instead of copying them
+        bytes[0] = 'P';
+        assertThat(buffer.get(0)).isEqualTo((byte) 'P');
+    }
+
+    @Test
+    void vertxBuffer() {
+        byte[] bytes = "payload".getBytes(StandardCharsets.UTF_8);
+
+        Buffer buffer = (Buffer) converter.convert(message(bytes), Buffer.class).getPayload();
+        assertThat(buffer.length()).isEqualTo(bytes.length);
+        assertThat(buffer.toString(StandardCharsets.UTF_8)).isEqualTo("payload");
+
+        // Wraps the payload bytes instead of copying them
+        bytes[0] = 'P';
+        assertThat(buffer.getByte(0)).isEqualTo((byte) 'P');
+        assertThat(buffer.getByteBuf().array()).isSameAs(bytes);
+    }
+
+    private static Message<?> message(byte[] bytes) {
+        InboundMessage msg = mock(InboundMessage.class);
+        when(msg.getPayloadAsBytes()).thenReturn(bytes);
+        return Message.of("ignored").addMetadata(new SolaceInboundMetadata(msg));
+    }
+}